@@ -0,0 +1,106 @@
+package com.travel.planning.configuration;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets at most {@code permits} requests run at once, in arrival order, and answers 503 to requests that
+ * wait longer than {@code timeout}. An asynchronous request keeps its permit until it completes. With virtual
+ * threads nothing else bounds the number of requests blocked on the connection pool, so this keeps the queue out
+ * of Hikari and the JDBC driver.
+ */
+public class DatabaseConcurrencyFilter extends OncePerRequestFilter {
+    private final Semaphore semaphore;
+    private final int permits;
+    private final long timeoutNanos;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public DatabaseConcurrencyFilter(int permits, Duration timeout) {
+        this.semaphore = new Semaphore(permits, true);
+        this.permits = permits;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.incrementAndGet();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"The service is busy, try again later\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // a streamed body reads the database after the filter returns, the permit is held until it completes
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            } else {
+                semaphore.release();
+            }
+        }
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getAvailablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return semaphore.getQueueLength();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    // the container calls onComplete once per request, after an error or a timeout too
+    private class ReleaseOnComplete implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            semaphore.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private boolean acquire() throws ServletException {
+        try {
+            return semaphore.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+        }
+    }
+}
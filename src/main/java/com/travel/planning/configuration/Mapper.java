@@ -1,15 +1,21 @@
 package com.travel.planning.configuration;
 
+import com.travel.planning.dto.response.CapacityDTO;
+import com.travel.planning.dto.response.ConnectionDTO;
 import com.travel.planning.dto.response.ServicesDTO;
 import com.travel.planning.dto.response.TravelDTO;
+import com.travel.planning.model.Connections;
+import com.travel.planning.model.ServiceCapacity;
 import com.travel.planning.model.Services;
 import com.travel.planning.model.Travel;
+import com.travel.planning.repository.TravelRow;
 
-import java.util.List;
+import java.util.ArrayList;
+import java.util.Set;
 
 public class Mapper {
     public static TravelDTO mapToTravelDTO(Travel travel) {
-        List<Services> services = travel.getServices();
+        Set<Services> services = travel.getServices();
         return TravelDTO.builder()
                 .departure(travel.getDeparture().getName())
                 .destination(travel.getDestination().getName())
@@ -24,4 +30,39 @@ public class Mapper {
                 .city(services.getCity().getName())
                 .build();
     }
+
+    public static CapacityDTO mapToCapacityDTO(ServiceCapacity capacity) {
+        return CapacityDTO.builder()
+                .name(capacity.getService().getName())
+                .city(capacity.getService().getCity().getName())
+                .date(capacity.getDate())
+                .capacity(capacity.getCapacity())
+                .remaining(capacity.getRemaining())
+                .build();
+    }
+
+    public static ConnectionDTO mapToConnectionDTO(Connections connection) {
+        return ConnectionDTO.builder()
+                .departure(connection.getDeparture().getName())
+                .destination(connection.getDestination().getName())
+                .duration(connection.getDuration())
+                .cost(connection.getCost())
+                .build();
+    }
+
+    public static TravelDTO mapToTravelDTO(TravelRow row) {
+        return TravelDTO.builder()
+                .departure(row.getDeparture())
+                .destination(row.getDestination())
+                .travel_time(row.getTravelTime())
+                .services(new ArrayList<>())
+                .build();
+    }
+
+    public static ServicesDTO mapToServicesDTO(TravelRow row) {
+        return ServicesDTO.builder()
+                .name(row.getService())
+                .city(row.getServiceCity())
+                .build();
+    }
 }
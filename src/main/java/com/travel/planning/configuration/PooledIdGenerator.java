@@ -0,0 +1,33 @@
+package com.travel.planning.configuration;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Sequence generator with the pooled optimizer, so Hibernate can batch inserts (IDENTITY disables batching).
+ * Allocation size and initial value are read from {@value #ALLOCATION_SIZE} and {@value #INITIAL_VALUE}
+ * ({@code spring.jpa.properties.travel.id.*}). On MySQL the sequence is emulated by a table.
+ */
+public class PooledIdGenerator extends SequenceStyleGenerator {
+    public static final String ALLOCATION_SIZE = "travel.id.allocation_size";
+    public static final String INITIAL_VALUE = "travel.id.initial_value";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<String, Object> settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+        parameters.put(INCREMENT_PARAM, String.valueOf(
+                ConfigurationHelper.getInt(ALLOCATION_SIZE, settings, DEFAULT_ALLOCATION_SIZE)));
+        parameters.put(INITIAL_PARAM, String.valueOf(ConfigurationHelper.getInt(INITIAL_VALUE, settings, 1)));
+        parameters.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
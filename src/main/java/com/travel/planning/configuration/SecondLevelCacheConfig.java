@@ -0,0 +1,71 @@
+package com.travel.planning.configuration;
+
+import jakarta.persistence.SharedCacheMode;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for the reference entities, Cities and Services, and the query cache for their
+ * finders. Every region is declared here with a bound on the number of heap entries, a region Hibernate asks
+ * for that is not declared fails the startup instead of growing without bound.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    public static final String CITIES = "cities";
+    public static final String SERVICES = "services";
+    public static final String CITIES_QUERIES = "cities-queries";
+    public static final String SERVICES_QUERIES = "services-queries";
+
+    // one entry per table, evicting one would let stale query results through
+    private static final long TIMESTAMPS_MAX_SIZE = 1000;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${entity-cache.cities.max-size:10000}") long citiesMaxSize,
+                                              @Value("${entity-cache.services.max-size:100000}") long servicesMaxSize,
+                                              @Value("${entity-cache.queries.max-size:10000}") long queriesMaxSize) {
+        var provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        var configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(CITIES, region(citiesMaxSize))
+                .withCache(SERVICES, region(servicesMaxSize))
+                .withCache(CITIES_QUERIES, region(queriesMaxSize))
+                .withCache(SERVICES_QUERIES, region(queriesMaxSize))
+                .withCache("default-query-results-region", region(queriesMaxSize))
+                .withCache("default-update-timestamps-region", region(TIMESTAMPS_MAX_SIZE))
+                .build();
+        // managers are shared by URI, every application context gets its own so no entity outlives its database
+        return provider.getCacheManager(URI.create("urn:travel-planning:" + UUID.randomUUID()), configuration);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CacheConfigurationBuilder<Object, Object> region(long maxSize) {
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(maxSize));
+    }
+}
@@ -0,0 +1,37 @@
+package com.travel.planning.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Active only when requests run on virtual threads, see the {@code virtual} profile.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+    @Bean
+    public DatabaseConcurrencyFilter databaseConcurrencyFilter(
+            @Value("${db.limiter.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${db.limiter.timeout:2s}") Duration timeout) {
+        return new DatabaseConcurrencyFilter(permits, timeout);
+    }
+
+    // every authenticated path, ahead of the security filters, as authentication loads the user from the database
+    @Bean
+    public FilterRegistrationBean<DatabaseConcurrencyFilter> databaseConcurrencyFilterRegistration(
+            DatabaseConcurrencyFilter databaseConcurrencyFilter) {
+        FilterRegistrationBean<DatabaseConcurrencyFilter> registration =
+                new FilterRegistrationBean<>(databaseConcurrencyFilter);
+        registration.addUrlPatterns("/register", "/token", "/travel/*", "/services/*", "/connections/*", "/search",
+                "/routes");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
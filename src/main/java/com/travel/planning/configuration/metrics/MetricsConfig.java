@@ -0,0 +1,95 @@
+package com.travel.planning.configuration.metrics;
+
+import com.travel.planning.configuration.DatabaseConcurrencyFilter;
+import com.travel.planning.configuration.security.CredentialsCache;
+import com.travel.planning.service.IdempotencyStore;
+import com.travel.planning.service.ServicesCatalogCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.hibernate.cfg.AvailableSettings;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Application meters on top of the ones Spring Boot binds by itself (http.server.requests,
+ * spring.data.repository.invocations, hikaricp.*), scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter(MeterRegistry meterRegistry) {
+        SqlStatementCounter counter = new SqlStatementCounter(meterRegistry);
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    @Bean
+    public static BeanPostProcessor repositorySqlMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        SingletonSupplier<MeterRegistry> registry = SingletonSupplier.of(meterRegistry::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, information) -> proxy.addAdvice(new RepositorySqlInterceptor(registry,
+                                    information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(CredentialsCache credentialsCache, ServicesCatalogCache servicesCatalogCache,
+                                    IdempotencyStore idempotencyStore) {
+        return registry -> {
+            bindCache(registry, "credentials", credentialsCache, CredentialsCache::getHits,
+                    CredentialsCache::getMisses, CredentialsCache::size);
+            bindCache(registry, "services-catalog", servicesCatalogCache, ServicesCatalogCache::getHits,
+                    ServicesCatalogCache::getMisses, ServicesCatalogCache::size);
+            // a hit is a replayed or awaited duplicate
+            bindCache(registry, "idempotency", idempotencyStore, IdempotencyStore::getReplays,
+                    IdempotencyStore::getExecutions, IdempotencyStore::size);
+            FunctionCounter.builder("cache.evictions", servicesCatalogCache, ServicesCatalogCache::getEvictions)
+                    .tag("cache", "services-catalog")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseLimiterMetrics(ObjectProvider<DatabaseConcurrencyFilter> databaseConcurrencyFilter) {
+        return registry -> databaseConcurrencyFilter.ifAvailable(filter -> {
+            Gauge.builder("db.limiter.permits.available", filter, DatabaseConcurrencyFilter::getAvailablePermits)
+                    .register(registry);
+            Gauge.builder("db.limiter.queue", filter, DatabaseConcurrencyFilter::getQueueLength)
+                    .register(registry);
+            FunctionCounter.builder("db.limiter.rejected", filter, DatabaseConcurrencyFilter::getRejected)
+                    .register(registry);
+        });
+    }
+
+    // same names as Micrometer's own cache binders, hit ratio = hit / (hit + miss)
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache, ToDoubleFunction<T> hits,
+                                      ToDoubleFunction<T> misses, ToDoubleFunction<T> size) {
+        FunctionCounter.builder("cache.gets", cache, hits)
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, misses)
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.size", cache, size)
+                .tag("cache", name)
+                .register(registry);
+    }
+}
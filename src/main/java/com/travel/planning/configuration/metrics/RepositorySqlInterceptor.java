@@ -0,0 +1,47 @@
+package com.travel.planning.configuration.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Records the number of SQL statements of every repository method call as {@code spring.data.repository.sql},
+ * tagged like the {@code spring.data.repository.invocations} timers. Nested calls count towards the caller too.
+ */
+public class RepositorySqlInterceptor implements MethodInterceptor {
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final String repository;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public RepositorySqlInterceptor(Supplier<MeterRegistry> meterRegistry, String repository) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long before = SqlStatementCounter.current();
+        try {
+            return invocation.proceed();
+        } finally {
+            summaries.computeIfAbsent(invocation.getMethod(), this::summary)
+                    .record(SqlStatementCounter.current() - before);
+        }
+    }
+
+    private DistributionSummary summary(Method method) {
+        return DistributionSummary.builder("spring.data.repository.sql")
+                .description("SQL statements per repository method call")
+                .baseUnit("statements")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .register(meterRegistry.get());
+    }
+}
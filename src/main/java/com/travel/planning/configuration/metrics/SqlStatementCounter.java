@@ -0,0 +1,34 @@
+package com.travel.planning.configuration.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares, in total as {@code db.sql.statements} and per thread,
+ * so {@link RepositorySqlInterceptor} can attribute them to the repository method that ran them.
+ * JDBC batches run through {@code Session#doWork} are passed in by the repositories that prepare them.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Counter total;
+
+    public SqlStatementCounter(MeterRegistry meterRegistry) {
+        this.total = Counter.builder("db.sql.statements")
+                .description("SQL statements prepared by Hibernate")
+                .register(meterRegistry);
+    }
+
+    public static long current() {
+        return STATEMENTS.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get()[0]++;
+        total.increment();
+        return sql;
+    }
+}
@@ -0,0 +1,41 @@
+package com.travel.planning.configuration.security;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link DaoAuthenticationProvider} that skips the user lookup and the BCrypt check
+ * when the same username and password were verified recently.
+ */
+public class CachingAuthenticationProvider extends DaoAuthenticationProvider {
+    private final CredentialsCache credentialsCache;
+
+    public CachingAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+                                         CredentialsCache credentialsCache) {
+        this.credentialsCache = credentialsCache;
+        setUserDetailsService(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!credentialsCache.isEnabled() || authentication.getCredentials() == null) {
+            return super.authenticate(authentication);
+        }
+
+        String key = CredentialsCache.key(authentication.getName(), authentication.getCredentials().toString());
+        UserAdapter cached = credentialsCache.get(key);
+        if (cached != null) {
+            return createSuccessAuthentication(cached, authentication, cached);
+        }
+
+        Authentication result = super.authenticate(authentication);
+        if (result.getPrincipal() instanceof UserAdapter userAdapter) {
+            credentialsCache.put(key, userAdapter);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,116 @@
+package com.travel.planning.configuration.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of already verified credentials. Keys are SHA-256 digests of username and password,
+ * so the raw password is never kept in memory, and principals are kept without the password hash.
+ * Entries expire after {@code ttl}, a full cache drops the entry verified longest ago.
+ * A {@code maxSize} of 0 disables the cache.
+ */
+public class CredentialsCache {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    // lookups run on every authenticated request and do not lock, only puts after a password check scan
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong puts = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CredentialsCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    public CredentialsCache(int maxSize, Duration ttl, Clock clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    public static String key(String username, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(username.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && ttlMillis > 0;
+    }
+
+    public UserAdapter get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt() <= clock.millis()) {
+            if (entry != null) {
+                entries.remove(key, entry);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.principal();
+    }
+
+    public void put(String key, UserAdapter principal) {
+        if (!isEnabled()) {
+            return;
+        }
+        long now = clock.millis();
+        if (!entries.containsKey(key) && entries.size() >= maxSize) {
+            evictOldest(now);
+        }
+        entries.put(key, new Entry(principal.withoutPassword(), now + ttlMillis, puts.incrementAndGet()));
+    }
+
+    /**
+     * Drops every cached principal of the user, must be called whenever the password or the role changes.
+     */
+    public void evict(String username) {
+        entries.values().removeIf(entry -> entry.principal().getUsername().equals(username));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    // only runs after a successful password check, which costs far more than the scan
+    private void evictOldest(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (entries.size() >= maxSize) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().order()))
+                    .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+        }
+    }
+
+    private record Entry(UserAdapter principal, long expiresAt, long order) {
+    }
+}
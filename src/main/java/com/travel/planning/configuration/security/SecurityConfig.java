@@ -1,5 +1,12 @@
 package com.travel.planning.configuration.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.DispatcherType;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -7,11 +14,16 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Base64;
 
 @Configuration
 @EnableWebSecurity
@@ -20,29 +32,70 @@ public class SecurityConfig {
     String[] allRoles = Arrays.stream(Role.values()).map(Enum::name).toArray(String[]::new);
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService) throws Exception {
         http.authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // streamed responses
                         .requestMatchers(HttpMethod.POST, "/register").permitAll()
+                        .requestMatchers(HttpMethod.POST, BearerTokenFilter.TOKEN_PATH).hasAnyAuthority(allRoles)
                         .requestMatchers(HttpMethod.GET, "/travel/all").hasAuthority(Role.ADMIN.toString())
+                        .requestMatchers(HttpMethod.GET, "/travel/page").hasAuthority(Role.ADMIN.toString())
+                        .requestMatchers(HttpMethod.GET, "/travel/stream").hasAuthority(Role.ADMIN.toString())
                         .requestMatchers(HttpMethod.DELETE, "/travel/delete")
                             .hasAuthority(Role.ADMIN.toString())
                         .requestMatchers(HttpMethod.POST, "/services/add")
                             .hasAuthority(Role.ADMIN.toString())
+                        .requestMatchers(HttpMethod.POST, "/services/import")
+                            .hasAuthority(Role.ADMIN.toString())
+                        .requestMatchers(HttpMethod.POST, "/services/capacity")
+                            .hasAuthority(Role.ADMIN.toString())
+                        .requestMatchers(HttpMethod.POST, "/connections/add")
+                            .hasAuthority(Role.ADMIN.toString())
                         .requestMatchers("/travel/**").hasAnyAuthority(allRoles)
                         .requestMatchers("/services/**").hasAnyAuthority(allRoles)
+                        .requestMatchers(HttpMethod.GET, "/routes").hasAnyAuthority(allRoles)
+                        .requestMatchers(HttpMethod.GET, "/search").hasAnyAuthority(allRoles)
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
                         .anyRequest().denyAll()
                 )
                 .httpBasic(Customizer.withDefaults())     //to send basic auth in http
                 .formLogin(Customizer.withDefaults())    //for default login form
+                .addFilterBefore(new BearerTokenFilter(tokenService), BasicAuthenticationFilter.class)
                 .csrf(AbstractHttpConfigurer::disable); // for POST requests via Postman;
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public CredentialsCache credentialsCache(@Value("${security.auth-cache.max-size:10000}") int maxSize,
+                                             @Value("${security.auth-cache.ttl:5m}") Duration ttl) {
+        return new CredentialsCache(maxSize, ttl);
+    }
+
+    @Bean
+    public TokenService tokenService(@Value("${security.token.secret:}") String secret,
+                                     @Value("${security.token.ttl:1h}") Duration ttl) {
+        byte[] key;
+        if (secret.isBlank()) {
+            key = new byte[32];         // tokens will not survive a restart
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = Base64.getDecoder().decode(secret);
+        }
+        return new TokenService(key, ttl);
+    }
+
+    @Bean
+    public CachingAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                                PasswordEncoder passwordEncoder,
+                                                                CredentialsCache credentialsCache) {
+        return new CachingAuthenticationProvider(userDetailsService, passwordEncoder, credentialsCache);
     }
 }
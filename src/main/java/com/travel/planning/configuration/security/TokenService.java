@@ -0,0 +1,97 @@
+package com.travel.planning.configuration.security;
+
+import com.travel.planning.model.User;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies compact HMAC-SHA256 signed tokens of the form {@code payload.signature}.
+ * The payload carries user id, role, expiry and email, so a token is verified without touching the database.
+ */
+public class TokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ThreadLocal<Mac> mac;
+
+    public TokenService(byte[] secret, Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    public TokenService(byte[] secret, Duration ttl, Clock clock) {
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String issue(User user) {
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        String payload = user.getUser_id() + ":" + user.getRole().name() + ":" + expiresAt + ":" + user.getEmail();
+        String encoded = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encoded + "." + ENCODER.encodeToString(sign(encoded));
+    }
+
+    public Instant expiresAt(String token) {
+        return Instant.ofEpochSecond(Long.parseLong(claims(token)[2]));
+    }
+
+    public Optional<UserAdapter> verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+
+        try {
+            String encoded = token.substring(0, dot);
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(encoded))) {
+                return Optional.empty();
+            }
+
+            String[] claims = claims(token);
+            if (Long.parseLong(claims[2]) <= clock.instant().getEpochSecond()) {
+                return Optional.empty();
+            }
+            return Optional.of(new UserAdapter(User.builder()
+                    .user_id(Long.parseLong(claims[0]))
+                    .role(Role.valueOf(claims[1]))
+                    .email(claims[3])
+                    .build()));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String[] claims(String token) {
+        String encoded = token.substring(0, token.indexOf('.'));
+        return new String(DECODER.decode(encoded), StandardCharsets.UTF_8).split(":", 4);
+    }
+
+    private byte[] sign(String encodedPayload) {
+        return mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -55,4 +55,13 @@ public class UserAdapter implements UserDetails {
     public User getUser() {
         return user;
     }
+
+    // for principals kept beyond the request, the hash is only needed to verify the password once
+    public UserAdapter withoutPassword() {
+        return new UserAdapter(User.builder()
+                .user_id(user.getUser_id())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .build());
+    }
 }
@@ -1,12 +1,28 @@
 package com.travel.planning.controller;
 
+import com.travel.planning.configuration.security.TokenService;
 import com.travel.planning.configuration.security.UserAdapter;
 import com.travel.planning.dto.request.*;
+import com.travel.planning.dto.response.BatchBookingDTO;
+import com.travel.planning.dto.response.CapacityDTO;
+import com.travel.planning.dto.response.ConnectionDTO;
+import com.travel.planning.dto.response.ImportResultDTO;
+import com.travel.planning.dto.response.RouteDTO;
+import com.travel.planning.dto.response.SearchResultDTO;
 import com.travel.planning.dto.response.ServicesDTO;
+import com.travel.planning.dto.response.TokenDTO;
 import com.travel.planning.dto.response.TravelDTO;
+import com.travel.planning.dto.response.TravelPageDTO;
+import com.travel.planning.service.CatalogImportService;
+import com.travel.planning.service.IdempotencyStore;
+import com.travel.planning.service.RouteGraph;
+import com.travel.planning.service.RoutePlanningService;
 import com.travel.planning.service.TravelPlanningService;
 import com.travel.planning.service.UserDetailsServiceImp;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -18,11 +34,20 @@ import jakarta.validation.Valid;
 
 import lombok.AllArgsConstructor;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -30,6 +55,11 @@ import java.util.List;
 public class TravelPlanningController {
     private final TravelPlanningService travelPlanningService;
     private final UserDetailsServiceImp userDetailsService;
+    private final CatalogImportService catalogImportService;
+    private final RoutePlanningService routePlanningService;
+    private final IdempotencyStore idempotencyStore;
+    private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Register new user")
     @ApiResponse(responseCode = "201", description = "User registered", content = @Content)
@@ -40,6 +70,24 @@ public class TravelPlanningController {
         return userDetailsService.register(registrationRequest);
     }
 
+    @Operation(summary = "Exchange basic credentials for a bearer token, authorization required",
+            security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponse(responseCode = "200", description = "Issued token", content = @Content(
+            schema = @Schema(implementation = TokenDTO.class),
+            examples = @ExampleObject(value = "{\"token\":\"MTpUUkFWRUxFUjox...\",\"type\":\"Bearer\"," +
+                    "\"expires_at\":\"2024-12-12T12:12:12Z\"}")))
+    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+
+    @PostMapping("/token")
+    public TokenDTO issueToken(@AuthenticationPrincipal UserAdapter userAdapter) {
+        String token = tokenService.issue(userAdapter.getUser());
+        return TokenDTO.builder()
+                .token(token)
+                .type("Bearer")
+                .expires_at(tokenService.expiresAt(token))
+                .build();
+    }
+
     @Operation(summary = "Create new travel, authorization required", security = @SecurityRequirement(name = "basicAuth"))
     @ApiResponse(responseCode = "201", description = "Created travel", content = @Content(
             schema = @Schema(implementation = TravelDTO.class),
@@ -47,12 +95,17 @@ public class TravelPlanningController {
                             "\"travel_time\":\"2024-12-12T12:12:12\"}")))
     @ApiResponse(responseCode = "400", description = "No city or travel already planned", content = @Content)
     @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    @ApiResponse(responseCode = "422", description = "The idempotency key was used for another request",
+            content = @Content)
 
     @PostMapping("/travel/create")
     public ResponseEntity<TravelDTO> createTravel(@Valid @RequestBody TravelRequest travelRequest,
+                                               @RequestHeader(name = IdempotencyStore.HEADER, required = false)
+                                               String idempotencyKey,
                                                @AuthenticationPrincipal UserAdapter userAdapter) {
-        return new ResponseEntity<>(travelPlanningService.createTravel(travelRequest, userAdapter.getUser()),
-                HttpStatus.CREATED);
+        return idempotencyStore.execute(userAdapter.getUsername(), idempotencyKey, travelRequest,
+                () -> new ResponseEntity<>(travelPlanningService.createTravel(travelRequest, userAdapter.getUser()),
+                        HttpStatus.CREATED));
     }
 
     @Operation(summary = "Get a list of services in the destination city or all of them, authorization required",
@@ -74,14 +127,36 @@ public class TravelPlanningController {
             schema = @Schema(implementation = TravelDTO.class),
             examples = @ExampleObject(value = "{\"departure\":\"Kiev\",\"destination\":\"Warsaw\"," +
                     "\"travel_time\":\"2024-12-12T12:12:12\",\"services\":[{\"name\":\"Hotel\",\"city\":\"Kiev\"}]}")))
-    @ApiResponse(responseCode = "400", description = "You haven't planned a travel, there is no service with that name",
-            content = @Content)
+    @ApiResponse(responseCode = "400", description = "You haven't planned a travel, there is no service with that name " +
+            "or it is fully booked on the travel date", content = @Content)
     @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    @ApiResponse(responseCode = "422", description = "The idempotency key was used for another request",
+            content = @Content)
 
     @PostMapping("/services/book")
     public TravelDTO bookService(@Valid @RequestBody ServiceRequest serviceRequest,
-                                   @AuthenticationPrincipal UserAdapter userAdapter) {
-        return travelPlanningService.bookService(serviceRequest, userAdapter.getUser());
+                                 @RequestHeader(name = IdempotencyStore.HEADER, required = false)
+                                 String idempotencyKey,
+                                 @AuthenticationPrincipal UserAdapter userAdapter) {
+        return idempotencyStore.execute(userAdapter.getUsername(), idempotencyKey, serviceRequest,
+                () -> travelPlanningService.bookService(serviceRequest, userAdapter.getUser()));
+    }
+
+    @Operation(summary = "Book several services for your travel at once, authorization required",
+            security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponse(responseCode = "200", description = "Updated travel and the outcome for every service", content = @Content(
+            schema = @Schema(implementation = BatchBookingDTO.class),
+            examples = @ExampleObject(value = "{\"travel\":{\"departure\":\"Kiev\",\"destination\":\"Warsaw\"," +
+                    "\"travel_time\":\"2024-12-12T12:12:12\",\"services\":[{\"name\":\"Hotel\",\"city\":\"Warsaw\"}]}," +
+                    "\"results\":[{\"name\":\"Hotel\",\"status\":\"BOOKED\",\"error\":null}," +
+                    "{\"name\":\"Zoo\",\"status\":\"NOT_FOUND\",\"error\":\"There is no service with that name\"}]}")))
+    @ApiResponse(responseCode = "400", description = "You haven't planned a travel, no services listed", content = @Content)
+    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+
+    @PostMapping("/services/book/batch")
+    public BatchBookingDTO bookServices(@Valid @RequestBody BatchServiceRequest batchServiceRequest,
+                                        @AuthenticationPrincipal UserAdapter userAdapter) {
+        return travelPlanningService.bookServices(batchServiceRequest, userAdapter.getUser());
     }
 
     @Operation(summary = "Complete the journey, authorization required", security = @SecurityRequirement(name = "basicAuth"))
@@ -111,6 +186,50 @@ public class TravelPlanningController {
         return travelPlanningService.getTravels();
     }
 
+    @Operation(summary = "Get a page of trips ordered by id, admin authority required",
+            security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponse(responseCode = "200", description = "Page of trips, pass next as after to get the following one",
+            content = @Content(
+            schema = @Schema(implementation = TravelPageDTO.class),
+            examples = @ExampleObject(value = "{\"travels\":[{\"departure\":\"Kiev\",\"destination\":\"Warsaw\"," +
+                    "\"travel_time\":\"2024-12-12T12:12:12\",\"services\":[]}],\"next\":1}")))
+    @ApiResponse(responseCode = "400", description = "Wrong page size", content = @Content)
+    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Wrong role", content = @Content)
+
+    @GetMapping("/travel/page")
+    public TravelPageDTO getTravelsPage(@RequestParam(required = false) Long after,
+                                        @RequestParam(defaultValue = "100") int size) {
+        return travelPlanningService.getTravels(after, size);
+    }
+
+    @Operation(summary = "Stream all trips as a JSON array, admin authority required",
+            security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponse(responseCode = "200", description = "List of trips", content = @Content(
+            schema = @Schema(implementation = TravelDTO.class),
+            examples = @ExampleObject(value = "[{\"departure\":\"Kiev\",\"destination\":\"Warsaw\"," +
+                    "\"travel_time\":\"2024-12-12T12:12:12\",\"services\":[{\"name\":\"Hotel\",\"city\":\"Kiev\"}]}]")))
+    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Wrong role", content = @Content)
+
+    @GetMapping("/travel/stream")
+    public ResponseEntity<StreamingResponseBody> streamTravels() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                travelPlanningService.streamTravels(travel -> {
+                    try {
+                        generator.writeObject(travel);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @Operation(summary = "Delete all trips that start/end in the specified city, admin authority required",
             security = @SecurityRequirement(name = "basicAuth"))
     @ApiResponse(responseCode = "200", description = "List of deleted trips", content = @Content(
@@ -125,6 +244,22 @@ public class TravelPlanningController {
         return travelPlanningService.deleteTrips(deleteRequest);
     }
 
+    @Operation(summary = "Search cities and services by name prefix, tolerating typos, authorization required",
+            security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponse(responseCode = "200", description = "Best matches first", content = @Content(
+            schema = @Schema(implementation = SearchResultDTO.class),
+            examples = @ExampleObject(value = "[{\"type\":\"CITY\",\"name\":\"Warsaw\"}," +
+                    "{\"type\":\"SERVICE\",\"name\":\"Hotel\",\"city\":\"Kiev\"}]")))
+    @ApiResponse(responseCode = "400", description = "Wrong number of results", content = @Content)
+    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+
+    @GetMapping("/search")
+    public List<SearchResultDTO> search(@RequestParam String query,
+                                        @RequestParam(required = false) SearchResultDTO.Type type,
+                                        @RequestParam(defaultValue = "10") int limit) {
+        return travelPlanningService.search(query, type, limit);
+    }
+
     @Operation(summary = "Add new service, admin authority required",
             security = @SecurityRequirement(name = "basicAuth"))
     @ApiResponse(responseCode = "200", description = "Added service", content = @Content(
@@ -139,5 +274,72 @@ public class TravelPlanningController {
         return travelPlanningService.addService(serviceRequest);
     }
 
+    @Operation(summary = "Set how many travelers can book a service on a date, admin authority required",
+            security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponse(responseCode = "200", description = "Capacity and places left", content = @Content(
+            schema = @Schema(implementation = CapacityDTO.class),
+            examples = @ExampleObject(value = "{\"name\":\"Hotel\",\"city\":\"Kiev\",\"date\":\"2024-12-12\"," +
+                    "\"capacity\":20,\"remaining\":18}")))
+    @ApiResponse(responseCode = "400", description = "No service or more bookings than the capacity",
+            content = @Content)
+    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Wrong role", content = @Content)
+
+    @PostMapping("/services/capacity")
+    public CapacityDTO setCapacity(@Valid @RequestBody CapacityRequest capacityRequest) {
+        return travelPlanningService.setCapacity(capacityRequest);
+    }
+
+    @Operation(summary = "Import services and cities from JSON lines ({\"name\",\"city\"} per line) or CSV " +
+            "(city,service per line), admin authority required", security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponse(responseCode = "200", description = "Result of every row", content = @Content(
+            schema = @Schema(implementation = ImportResultDTO.class),
+            examples = @ExampleObject(value = "[{\"line\":1,\"name\":\"Hotel\",\"city\":\"Kiev\",\"status\":\"CREATED\"}," +
+                    "{\"line\":2,\"status\":\"INVALID\",\"error\":\"Expected city,service\"}]")))
+    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Wrong role", content = @Content)
+    @ApiResponse(responseCode = "415", description = "Neither application/x-ndjson nor text/csv", content = @Content)
+
+    @PostMapping(value = "/services/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public List<ImportResultDTO> importServices(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                InputStream body) {
+        CatalogImportService.Format format = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? CatalogImportService.Format.JSON_LINES : CatalogImportService.Format.CSV;
+        return catalogImportService.importServices(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), format);
+    }
+
+    @Operation(summary = "Find the shortest routes between two cities by duration or cost, authorization required",
+            security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponse(responseCode = "200", description = "Routes ordered from the shortest", content = @Content(
+            schema = @Schema(implementation = RouteDTO.class),
+            examples = @ExampleObject(value = "[{\"legs\":[{\"departure\":\"Kiev\",\"destination\":\"Warsaw\"," +
+                    "\"duration\":540,\"cost\":45},{\"departure\":\"Warsaw\",\"destination\":\"Berlin\"," +
+                    "\"duration\":330,\"cost\":40}],\"duration\":870,\"cost\":85}]")))
+    @ApiResponse(responseCode = "400", description = "No city, no route or wrong number of routes", content = @Content)
+    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+
+    @GetMapping("/routes")
+    public List<RouteDTO> findRoutes(@RequestParam String departure, @RequestParam String destination,
+                                     @RequestParam(defaultValue = "DURATION") RouteGraph.Weight weight,
+                                     @RequestParam(defaultValue = "1") int limit) {
+        return routePlanningService.findRoutes(departure, destination, weight, limit);
+    }
+
+    @Operation(summary = "Add a direct connection between two cities, admin authority required",
+            security = @SecurityRequirement(name = "basicAuth"))
+    @ApiResponse(responseCode = "200", description = "Added connection", content = @Content(
+            schema = @Schema(implementation = ConnectionDTO.class),
+            examples = @ExampleObject(value = "{\"departure\":\"Kiev\",\"destination\":\"Warsaw\"," +
+                    "\"duration\":540,\"cost\":45}")))
+    @ApiResponse(responseCode = "400", description = "The connection already exists", content = @Content)
+    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    @ApiResponse(responseCode = "403", description = "Wrong role", content = @Content)
+
+    @PostMapping("/connections/add")
+    public ConnectionDTO addConnection(@Valid @RequestBody ConnectionRequest connectionRequest) {
+        return routePlanningService.addConnection(connectionRequest);
+    }
+
     // http://localhost:8080/swagger-ui/index.html to access swagger
 }
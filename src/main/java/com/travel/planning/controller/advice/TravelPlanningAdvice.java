@@ -1,5 +1,6 @@
 package com.travel.planning.controller.advice;
 
+import com.travel.planning.exception.IdempotencyException;
 import com.travel.planning.exception.ServicesException;
 import com.travel.planning.exception.TravelException;
 import org.springframework.http.HttpStatus;
@@ -32,4 +33,10 @@ public class TravelPlanningAdvice {
     public Map<String, String> handleServicesException(ServicesException exception) {
         return Map.of("error", exception.getMessage());
     }
+
+    @ExceptionHandler(IdempotencyException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public Map<String, String> handleIdempotencyException(IdempotencyException exception) {
+        return Map.of("error", exception.getMessage());
+    }
 }
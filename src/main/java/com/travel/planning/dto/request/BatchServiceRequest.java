@@ -0,0 +1,26 @@
+package com.travel.planning.dto.request;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchServiceRequest {
+    public static final int MAX_SIZE = 100;
+
+    @ArraySchema(schema = @Schema(example = "Hotel"))
+    @NotEmpty(message = "Write down the names of services!")
+    @Size(max = MAX_SIZE, message = "No more than " + MAX_SIZE + " services at once")
+    private List<@NotBlank(message = "Write down the name of service!") String> names;
+}
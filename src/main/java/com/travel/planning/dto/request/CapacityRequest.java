@@ -0,0 +1,30 @@
+package com.travel.planning.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class CapacityRequest {
+    @Schema(example = "Hotel")
+    @NotBlank(message = "Write down the name of service!")
+    private String name;
+    @Schema(example = "Kiev")
+    @NotBlank(message = "Write down the name of the city where the service is located")
+    private String city;
+    @Schema(example = "2024-12-12")
+    @NotNull(message = "Choose the date!")
+    private LocalDate date;
+    @Schema(example = "20")
+    @NotNull(message = "Write down the capacity!")
+    @PositiveOrZero(message = "The capacity cannot be negative")
+    private Integer capacity;
+}
@@ -0,0 +1,30 @@
+package com.travel.planning.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ConnectionRequest {
+    @Schema(example = "Kiev")
+    @NotBlank(message = "Write down the city of departure!")
+    private String departure;
+    @Schema(example = "Warsaw")
+    @NotBlank(message = "Write down the destination city!")
+    private String destination;
+    @Schema(example = "540", description = "Minutes")
+    @NotNull(message = "Write down the duration in minutes!")
+    @Positive(message = "The duration must be positive")
+    private Integer duration;
+    @Schema(example = "45")
+    @NotNull(message = "Write down the cost!")
+    @PositiveOrZero(message = "The cost cannot be negative")
+    private Integer cost;
+}
@@ -0,0 +1,13 @@
+package com.travel.planning.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchBookingDTO {
+    private TravelDTO travel;
+    private List<BookingResultDTO> results;
+}
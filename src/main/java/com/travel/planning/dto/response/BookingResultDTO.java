@@ -0,0 +1,16 @@
+package com.travel.planning.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BookingResultDTO {
+    private String name;
+    private Status status;
+    private String error;
+
+    public enum Status {
+        BOOKED, ALREADY_BOOKED, DUPLICATE, NOT_FOUND, WRONG_CITY, FULLY_BOOKED
+    }
+}
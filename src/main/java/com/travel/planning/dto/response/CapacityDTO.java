@@ -0,0 +1,16 @@
+package com.travel.planning.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class CapacityDTO {
+    private String name;
+    private String city;
+    private LocalDate date;
+    private int capacity;
+    private int remaining;
+}
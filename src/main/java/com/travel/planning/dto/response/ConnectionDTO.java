@@ -0,0 +1,13 @@
+package com.travel.planning.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ConnectionDTO {
+    private String departure;
+    private String destination;
+    private int duration;
+    private int cost;
+}
@@ -0,0 +1,18 @@
+package com.travel.planning.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ImportResultDTO {
+    private int line;
+    private String name;
+    private String city;
+    private Status status;
+    private String error;
+
+    public enum Status {
+        CREATED, EXISTS, DUPLICATE, INVALID
+    }
+}
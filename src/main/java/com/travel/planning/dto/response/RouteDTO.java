@@ -0,0 +1,14 @@
+package com.travel.planning.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class RouteDTO {
+    private List<ConnectionDTO> legs;
+    private long duration;
+    private long cost;
+}
@@ -0,0 +1,16 @@
+package com.travel.planning.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SearchResultDTO {
+    private Type type;
+    private String name;
+    private String city;
+
+    public enum Type {
+        CITY, SERVICE
+    }
+}
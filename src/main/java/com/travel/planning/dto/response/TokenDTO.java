@@ -0,0 +1,14 @@
+package com.travel.planning.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class TokenDTO {
+    private String token;
+    private String type;
+    private Instant expires_at;
+}
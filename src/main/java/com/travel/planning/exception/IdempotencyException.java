@@ -0,0 +1,7 @@
+package com.travel.planning.exception;
+
+public class IdempotencyException extends RuntimeException {
+    public IdempotencyException(String msg) {
+        super(msg);
+    }
+}
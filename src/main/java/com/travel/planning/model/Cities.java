@@ -1,22 +1,46 @@
 package com.travel.planning.model;
 
+import com.travel.planning.configuration.PooledIdGenerator;
+import com.travel.planning.configuration.SecondLevelCacheConfig;
+
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
+/**
+ * Equal by name, which is unique and never changes once the city is saved.
+ * Kept in the second-level cache for lookups by id and name, a city joined into a query is cached from its row.
+ */
 @Entity
-@Table(name = "cities")
-@Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.CITIES)
+@Table(name = "cities", uniqueConstraints = @UniqueConstraint(name = "uk_cities_name", columnNames = "name"))
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Cities {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "cities_seq")
+    @GenericGenerator(name = "cities_seq", type = PooledIdGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "cities_seq"))
     private Long id;
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
+    @EqualsAndHashCode.Include
     private String name;
 }
@@ -0,0 +1,66 @@
+package com.travel.planning.model;
+
+import com.travel.planning.configuration.PooledIdGenerator;
+
+import jakarta.persistence.*;
+
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Direct one-way connection between two cities, weighted by duration in minutes and cost.
+ */
+@Entity
+@Table(name = "connections",
+        uniqueConstraints = @UniqueConstraint(name = Connections.ROUTE_UNIQUE_CONSTRAINT,
+                columnNames = {"departure_id", "destination_id"}))
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Connections {
+    public static final String ROUTE_UNIQUE_CONSTRAINT = "uk_connection_route";
+
+    @Id
+    @GeneratedValue(generator = "connections_seq")
+    @GenericGenerator(name = "connections_seq", type = PooledIdGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "connections_seq"))
+    private Long id;
+    @ManyToOne(optional = false)
+    @ToString.Exclude
+    @JoinColumn(name = "departure_id", foreignKey = @ForeignKey(name = "fk_connection_departure"))
+    private Cities departure;
+    @ManyToOne(optional = false)
+    @ToString.Exclude
+    @JoinColumn(name = "destination_id", foreignKey = @ForeignKey(name = "fk_connection_destination"))
+    private Cities destination;
+    private int duration;
+    private int cost;
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || Hibernate.getClass(this) != Hibernate.getClass(other)) {
+            return false;
+        }
+        return id != null && id.equals(((Connections) other).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id == null ? System.identityHashCode(this) : id.hashCode();
+    }
+}
@@ -0,0 +1,67 @@
+package com.travel.planning.model;
+
+import com.travel.planning.configuration.PooledIdGenerator;
+
+import jakarta.persistence.*;
+
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Bookings a service takes on one date, services without a row for the date are not limited.
+ * {@code remaining} is only changed by conditional updates in the database, never read and written back.
+ */
+@Entity
+@Table(name = "service_capacity",
+        uniqueConstraints = @UniqueConstraint(name = ServiceCapacity.DATE_UNIQUE_CONSTRAINT,
+                columnNames = {"service_id", "service_date"}))
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ServiceCapacity {
+    public static final String DATE_UNIQUE_CONSTRAINT = "uk_capacity_service_date";
+
+    @Id
+    @GeneratedValue(generator = "service_capacity_seq")
+    @GenericGenerator(name = "service_capacity_seq", type = PooledIdGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "service_capacity_seq"))
+    private Long id;
+    @ManyToOne(optional = false)
+    @ToString.Exclude
+    @JoinColumn(name = "service_id", foreignKey = @ForeignKey(name = "fk_capacity_service"))
+    private Services service;
+    @Column(name = "service_date", nullable = false)
+    private LocalDate date;
+    private int capacity;
+    private int remaining;
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || Hibernate.getClass(this) != Hibernate.getClass(other)) {
+            return false;
+        }
+        return id != null && id.equals(((ServiceCapacity) other).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id == null ? System.identityHashCode(this) : id.hashCode();
+    }
+}
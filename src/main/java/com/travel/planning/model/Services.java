@@ -1,31 +1,71 @@
 package com.travel.planning.model;
 
+import com.travel.planning.configuration.PooledIdGenerator;
+import com.travel.planning.configuration.SecondLevelCacheConfig;
+
 import jakarta.persistence.*;
 
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.List;
 
 @Entity
-@Table(name = "services")
-@Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.SERVICES)
+@Table(name = "services", indexes = {
+        @Index(name = "idx_services_city_name", columnList = "city_id, name"),
+        @Index(name = "idx_services_name", columnList = "name")})
+@Getter
+@Setter
+@ToString
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Services {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "services_seq")
+    @GenericGenerator(name = "services_seq", type = PooledIdGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "services_seq"))
     private Long id;
     private String name;
     @ManyToOne
-    @JoinColumn(name = "city", referencedColumnName = "name")
+    @ToString.Exclude
+    @JoinColumn(name = "city_id", foreignKey = @ForeignKey(name = "fk_services_city"))
     private Cities city;
     @ManyToMany
+    @ToString.Exclude
     @JoinTable(name = "travel_services",
-            joinColumns = @JoinColumn(name = "service_id"),
-            inverseJoinColumns = @JoinColumn(name = "travel_id"))
+            joinColumns = @JoinColumn(name = "service_id",
+                    foreignKey = @ForeignKey(name = "fk_travel_services_service")),
+            inverseJoinColumns = @JoinColumn(name = "travel_id",
+                    foreignKey = @ForeignKey(name = "fk_travel_services_travel")))
     private List<Travel> travels;
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || Hibernate.getClass(this) != Hibernate.getClass(other)) {
+            return false;
+        }
+        return id != null && id.equals(((Services) other).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id == null ? System.identityHashCode(this) : id.hashCode();
+    }
 }
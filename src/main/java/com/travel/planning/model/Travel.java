@@ -1,38 +1,87 @@
 package com.travel.planning.model;
 
+import com.travel.planning.configuration.PooledIdGenerator;
+
 import jakarta.persistence.*;
 
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Set;
 
+/**
+ * Entities are equal by id and never look at their associations in equals, hashCode or toString: putting a
+ * travel into a set must not load its user or walk its services and their travels. The hash of a new entity
+ * changes when it is saved, so it must not be kept in a set across the save.
+ */
 @Entity
-@Table(name = "travel")
-@Data
+@Table(name = "travel",
+        uniqueConstraints = @UniqueConstraint(name = Travel.USER_UNIQUE_CONSTRAINT, columnNames = "user_id"),
+        indexes = {@Index(name = "idx_travel_departure", columnList = "departure_id"),
+                @Index(name = "idx_travel_destination", columnList = "destination_id")})
+@Getter
+@Setter
+@ToString
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Travel {
+    public static final String USER_UNIQUE_CONSTRAINT = "uk_travel_user";
+    public static final String SERVICE_UNIQUE_CONSTRAINT = "uk_travel_service";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "travel_seq")
+    @GenericGenerator(name = "travel_seq", type = PooledIdGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "travel_seq"))
     private Long id;
+    @ToString.Exclude
     @ManyToOne
-    @JoinColumn(name = "departure", referencedColumnName = "name")
+    @JoinColumn(name = "departure_id", foreignKey = @ForeignKey(name = "fk_travel_departure"))
     private Cities departure;
+    @ToString.Exclude
     @ManyToOne
-    @JoinColumn(name = "destination", referencedColumnName = "name")
+    @JoinColumn(name = "destination_id", foreignKey = @ForeignKey(name = "fk_travel_destination"))
     private Cities destination;
     private LocalDateTime travel_time;
+    @ToString.Exclude
     @OneToOne
-    @JoinColumn(name = "user_id")
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(name = "fk_travel_user"))
     private User user;
+    // a set, so Hibernate updates single rows instead of rewriting the whole bag, ordered by service id
+    @ToString.Exclude
     @ManyToMany
     @JoinTable(name = "travel_services",
-            joinColumns = @JoinColumn(name = "travel_id"),
-            inverseJoinColumns = @JoinColumn(name = "service_id"))
-    private List<Services> services;
+            joinColumns = @JoinColumn(name = "travel_id", foreignKey = @ForeignKey(name = "fk_travel_services_travel")),
+            inverseJoinColumns = @JoinColumn(name = "service_id",
+                    foreignKey = @ForeignKey(name = "fk_travel_services_service")),
+            uniqueConstraints = @UniqueConstraint(name = Travel.SERVICE_UNIQUE_CONSTRAINT,
+                    columnNames = {"travel_id", "service_id"}))
+    @OrderBy("id")
+    private Set<Services> services;
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || Hibernate.getClass(this) != Hibernate.getClass(other)) {
+            return false;
+        }
+        return id != null && id.equals(((Travel) other).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id == null ? System.identityHashCode(this) : id.hashCode();
+    }
 }
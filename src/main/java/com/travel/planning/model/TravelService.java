@@ -2,6 +2,12 @@ package com.travel.planning.model;
 
 import jakarta.persistence.*;
 
+/**
+ * Only maps the id column of the {@code travel_services} join table, no row is ever persisted through it.
+ * Bookings are written by {@code Travel.services} and by the batched inserts of
+ * {@link com.travel.planning.repository.TravelServicesRepository}, neither sets the id, so it stays with the
+ * database (IDENTITY) and does not stop batching as it would for the other entities, see {@code PooledIdGenerator}.
+ */
 @Entity
 @Table(name = "travel_services")
 public class TravelService {
@@ -1,22 +1,36 @@
 package com.travel.planning.model;
 
+import com.travel.planning.configuration.PooledIdGenerator;
 import com.travel.planning.configuration.security.Role;
 
 import jakarta.persistence.*;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import lombok.*;
 
+/**
+ * Equal by email, the login name.
+ */
 @Entity
-@Table(name = "user")
-@Data
+@Table(name = "user", indexes = @Index(name = "idx_user_email", columnList = "email"))
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "user_seq")
+    @GenericGenerator(name = "user_seq", type = PooledIdGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "user_seq"))
     private Long user_id;
+    @EqualsAndHashCode.Include
     private String email;
     private String password;
     private Role role;
@@ -0,0 +1,28 @@
+package com.travel.planning.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Takes places from service_capacity without loading the rows.
+ */
+public interface CapacityReservations {
+    // one place, an exhausted service and a service without capacity for the date update nothing
+    String RESERVE = "UPDATE service_capacity SET remaining = remaining - 1 " +
+            "WHERE service_id = :serviceId AND service_date = :date AND remaining > 0";
+    String RELEASE = "UPDATE service_capacity SET remaining = remaining + ? " +
+            "WHERE service_id = ? AND service_date = ?";
+
+    /**
+     * Reserves one place of every service in one JDBC batch, the returned update counts are in the order of
+     * {@code serviceIds} and are 0 for services that are fully booked or not limited on that date.
+     */
+    int[] reserveAll(List<Long> serviceIds, LocalDate date);
+
+    /**
+     * Gives back the given number of places per service id in one JDBC batch, services that are not limited on
+     * that date are skipped by the database.
+     */
+    void releaseAll(LocalDate date, Map<Long, Integer> places);
+}
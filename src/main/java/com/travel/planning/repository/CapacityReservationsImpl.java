@@ -0,0 +1,44 @@
+package com.travel.planning.repository;
+
+import jakarta.persistence.EntityManager;
+
+import lombok.AllArgsConstructor;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+public class CapacityReservationsImpl implements CapacityReservations {
+    private static final String RESERVE_JDBC = RESERVE
+            .replace(":serviceId", "?")
+            .replace(":date", "?");
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int[] reserveAll(List<Long> serviceIds, LocalDate date) {
+        return JdbcWork.execute(entityManager, RESERVE_JDBC, statement -> {
+            for (Long serviceId : serviceIds) {
+                statement.setLong(1, serviceId);
+                statement.setDate(2, Date.valueOf(date));
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+    }
+
+    @Override
+    public void releaseAll(LocalDate date, Map<Long, Integer> places) {
+        JdbcWork.execute(entityManager, RELEASE, statement -> {
+            for (Map.Entry<Long, Integer> place : places.entrySet()) {
+                statement.setInt(1, place.getValue());
+                statement.setLong(2, place.getKey());
+                statement.setDate(3, Date.valueOf(date));
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+    }
+}
@@ -1,13 +1,27 @@
 package com.travel.planning.repository;
 
+import com.travel.planning.configuration.SecondLevelCacheConfig;
 import com.travel.planning.model.Cities;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CitiesRepository extends JpaRepository<Cities,Long> {
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.CITIES_QUERIES)})
     Optional<Cities> findCitiesByName(String name);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.CITIES_QUERIES)})
+    List<Cities> findAllByNameIn(Collection<String> names);
 }
@@ -0,0 +1,20 @@
+package com.travel.planning.repository;
+
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Connections;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConnectionsRepository extends JpaRepository<Connections, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"departure", "destination"})
+    List<Connections> findAll();
+
+    Optional<Connections> findByDepartureAndDestination(Cities departure, Cities destination);
+}
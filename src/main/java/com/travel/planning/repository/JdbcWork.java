@@ -0,0 +1,34 @@
+package com.travel.planning.repository;
+
+import jakarta.persistence.EntityManager;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * JDBC batches run on the connection of the current session. Statements prepared here go through the session's
+ * {@link StatementInspector} like the ones Hibernate prepares itself, so they are counted in
+ * {@code db.sql.statements} and {@code spring.data.repository.sql} too.
+ */
+final class JdbcWork {
+    private JdbcWork() {
+    }
+
+    interface Batch<T> {
+        T execute(PreparedStatement statement) throws SQLException;
+    }
+
+    static <T> T execute(EntityManager entityManager, String sql, Batch<T> batch) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        StatementInspector inspector = session.getJdbcSessionContext().getStatementInspector();
+        String inspected = inspector == null ? null : inspector.inspect(sql);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(inspected == null ? sql : inspected)) {
+                return batch.execute(statement);
+            }
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.travel.planning.repository;
+
+import com.travel.planning.model.ServiceCapacity;
+import com.travel.planning.model.Services;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Availability is never read and written back: every change is a single conditional update, so concurrent
+ * bookings of one service only wait for that service's row and bookings of other services do not wait at all.
+ */
+@Repository
+public interface ServiceCapacityRepository extends JpaRepository<ServiceCapacity, Long>, CapacityReservations {
+    Optional<ServiceCapacity> findByServiceAndDate(Services service, LocalDate date);
+    boolean existsByServiceIdAndDate(Long serviceId, LocalDate date);
+
+    @Query("SELECT c.service.id FROM ServiceCapacity c WHERE c.service.id IN :serviceIds AND c.date = :date")
+    List<Long> findServiceIdsByDate(@Param("serviceIds") Collection<Long> serviceIds, @Param("date") LocalDate date);
+
+    // native writes name the table they touch, otherwise Hibernate empties every second-level cache region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "service_capacity"))
+    @Modifying
+    @Query(value = RESERVE, nativeQuery = true)
+    int reserve(@Param("serviceId") Long serviceId, @Param("date") LocalDate date);
+
+    // keeps capacity - remaining, the number of bookings, and refuses to go below it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "service_capacity"))
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE service_capacity SET remaining = remaining + :capacity - capacity, capacity = :capacity " +
+            "WHERE service_id = :serviceId AND service_date = :date AND remaining + :capacity - capacity >= 0",
+            nativeQuery = true)
+    int resize(@Param("serviceId") Long serviceId, @Param("date") LocalDate date, @Param("capacity") int capacity);
+
+    @Query(value = "SELECT COUNT(*) FROM travel_services ts JOIN travel t ON t.id = ts.travel_id " +
+            "WHERE ts.service_id = :serviceId AND CAST(t.travel_time AS DATE) = :date", nativeQuery = true)
+    int countBookings(@Param("serviceId") Long serviceId, @Param("date") LocalDate date);
+}
@@ -1,17 +1,49 @@
 package com.travel.planning.repository;
 
+import com.travel.planning.configuration.SecondLevelCacheConfig;
 import com.travel.planning.model.Cities;
 import com.travel.planning.model.Services;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ServicesRepository extends JpaRepository<Services,Long> {
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.SERVICES_QUERIES)})
     List<Services> findAllByCity(Cities city);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.SERVICES_QUERIES)})
     Optional<Services> findByName(String name);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.SERVICES_QUERIES)})
     Optional<Services> findByNameAndCity(String name, Cities city);
-}
\ No newline at end of file
+
+    List<Services> findAllByCityIn(Collection<Cities> cities);
+
+    @EntityGraph(attributePaths = "city")
+    List<Services> findAllByNameIn(Collection<String> names);
+
+    @EntityGraph(attributePaths = "city")
+    List<Services> findAllBy();
+
+    @EntityGraph(attributePaths = "city")
+    List<Services> findAllByCityInAndNameIn(Collection<Cities> cities, Collection<String> names);
+
+    @Query(value = "SELECT id FROM services WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("id") Long id);
+}
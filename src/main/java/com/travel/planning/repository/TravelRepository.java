@@ -4,15 +4,72 @@ import com.travel.planning.model.Cities;
 import com.travel.planning.model.Travel;
 import com.travel.planning.model.User;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TravelRepository extends JpaRepository<Travel,Long> {
+public interface TravelRepository extends JpaRepository<Travel,Long>, TravelServicesRepository {
     Optional<Travel> findTravelByUser(User user);
     List<Travel> findAllByDeparture(Cities departure);
     List<Travel> findAllByDestination(Cities destination);
+
+    // one round trip for travels, their cities, owner and booked services instead of one query per row
+    @EntityGraph(attributePaths = {"departure", "destination", "user", "services", "services.city"})
+    @Query("SELECT t FROM Travel t")
+    List<Travel> findAllWithServices();
+
+    // keyset pagination: ids first, so the collection fetch below is never paginated in memory
+    @Query("SELECT t.id FROM Travel t WHERE t.id > :after ORDER BY t.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Limit limit);
+
+    @EntityGraph(attributePaths = {"departure", "destination", "user", "services", "services.city"})
+    @Query("SELECT t FROM Travel t WHERE t.id IN :ids ORDER BY t.id")
+    List<Travel> findAllWithServicesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id FROM Travel t " +
+            "WHERE t.id > :after AND (t.departure.id = :departure OR t.destination.id = :destination) " +
+            "ORDER BY t.id")
+    List<Long> findIdsByDepartureOrDestination(@Param("after") Long after, @Param("departure") Long departure,
+                                               @Param("destination") Long destination, Limit limit);
+
+    // native writes only touch travel_services, without the hint Hibernate would empty every cache region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "travel_services"))
+    @Modifying
+    @Query(value = INSERT_SERVICE, nativeQuery = true)
+    int insertService(@Param("travelId") Long travelId, @Param("serviceId") Long serviceId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "travel_services"))
+    @Modifying
+    @Query(value = "DELETE FROM travel_services WHERE travel_id = :travelId AND service_id IN :serviceIds",
+            nativeQuery = true)
+    int deleteServices(@Param("travelId") Long travelId, @Param("serviceIds") Collection<Long> serviceIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "travel_services"))
+    @Modifying
+    @Query(value = "DELETE FROM travel_services WHERE travel_id IN :ids", nativeQuery = true)
+    int deleteServicesByTravelIdIn(@Param("ids") Collection<Long> ids);
+
+    // forward-only read, with MySQL it needs useCursorFetch=true for the fetch size to be honoured
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT t.id AS id, d.name AS departure, a.name AS destination, t.travel_time AS travelTime, " +
+            "s.name AS service, c.name AS serviceCity " +
+            "FROM Travel t JOIN t.departure d JOIN t.destination a LEFT JOIN t.services s LEFT JOIN s.city c " +
+            "ORDER BY t.id")
+    Stream<TravelRow> streamAllRows();
 }
@@ -0,0 +1,16 @@
+package com.travel.planning.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat travel/service row used to stream trips without materialising entities.
+ * A travel with several booked services spans consecutive rows, a travel without services has null service fields.
+ */
+public interface TravelRow {
+    Long getId();
+    String getDeparture();
+    String getDestination();
+    LocalDateTime getTravelTime();
+    String getService();
+    String getServiceCity();
+}
@@ -0,0 +1,19 @@
+package com.travel.planning.repository;
+
+import java.util.List;
+
+/**
+ * Writes to the travel_services join table without loading the booked services.
+ */
+public interface TravelServicesRepository {
+    // one row per booking, uk_travel_service turns a second booking of the service into 0 rows instead of an error,
+    // also when two bookings race; SELECT rather than VALUES keeps the batch from being rewritten into one
+    // multi-row insert, which would report no update count per service
+    String INSERT_SERVICE = "INSERT IGNORE INTO travel_services (travel_id, service_id) SELECT :travelId, :serviceId";
+
+    /**
+     * Books all services in one JDBC batch, the returned update counts are in the order of {@code serviceIds}
+     * and are 0 for services that were already booked.
+     */
+    int[] insertServices(Long travelId, List<Long> serviceIds);
+}
@@ -0,0 +1,28 @@
+package com.travel.planning.repository;
+
+import jakarta.persistence.EntityManager;
+
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class TravelServicesRepositoryImpl implements TravelServicesRepository {
+    private static final String INSERT_SERVICE_JDBC = INSERT_SERVICE
+            .replace(":travelId", "?")
+            .replace(":serviceId", "?");
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int[] insertServices(Long travelId, List<Long> serviceIds) {
+        return JdbcWork.execute(entityManager, INSERT_SERVICE_JDBC, statement -> {
+            for (Long serviceId : serviceIds) {
+                statement.setLong(1, travelId);
+                statement.setLong(2, serviceId);
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+    }
+}
@@ -0,0 +1,184 @@
+package com.travel.planning.service;
+
+import com.travel.planning.dto.response.ImportResultDTO;
+import com.travel.planning.dto.response.ImportResultDTO.Status;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Services;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServicesRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of (city, service) pairs. Rows are read and imported {@value #CHUNK_SIZE} at a time: cities and
+ * services of a chunk are looked up with IN queries and inserted with batched statements before the next chunk
+ * is read, so besides the per-row results only the dedupe keys and the resolved cities stay in memory.
+ * Names compare case-insensitively, in the lookups as on both databases.
+ */
+@Service
+@AllArgsConstructor
+public class CatalogImportService {
+    public static final int CHUNK_SIZE = 500;
+
+    private final CitiesRepository citiesRepository;
+    private final ServicesRepository servicesRepository;
+    private final CityRegistry cityRegistry;
+    private final ServicesCatalogCache servicesCatalogCache;
+    private final SearchIndex searchIndex;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        JSON_LINES, CSV
+    }
+
+    @Transactional
+    public List<ImportResultDTO> importServices(BufferedReader reader, Format format) {
+        List<ImportResultDTO> results = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Map<String, Cities> cities = new HashMap<>();
+        List<ImportResultDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank() || (format == Format.CSV && number == 1 && isCsvHeader(line))) {
+                    continue;
+                }
+                ImportResultDTO row = format == Format.CSV ? parseCsv(number, line) : parseJson(number, line);
+                results.add(row);
+                if (row.getStatus() == Status.INVALID) {
+                    continue;
+                }
+                if (!seen.add(key(row.getCity(), row.getName()))) {
+                    row.setStatus(Status.DUPLICATE);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, cities);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        importChunk(chunk, cities);
+        return results;
+    }
+
+    private void importChunk(List<ImportResultDTO> chunk, Map<String, Cities> cities) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Cities> createdCities = resolveCities(chunk, cities);
+        List<Cities> chunkCities = chunk.stream().map(row -> cities.get(key(row.getCity()))).distinct().toList();
+        Set<String> existing = new HashSet<>();
+        servicesRepository.findAllByCityInAndNameIn(chunkCities,
+                        chunk.stream().map(ImportResultDTO::getName).collect(Collectors.toSet()))
+                .forEach(service -> existing.add(key(service.getCity().getName(), service.getName())));
+
+        List<Services> createdServices = new ArrayList<>(chunk.size());
+        for (ImportResultDTO row : chunk) {
+            if (existing.contains(key(row.getCity(), row.getName()))) {
+                row.setStatus(Status.EXISTS);
+                continue;
+            }
+            createdServices.add(Services.builder().name(row.getName()).city(cities.get(key(row.getCity()))).build());
+            row.setStatus(Status.CREATED);
+        }
+        servicesRepository.saveAll(createdServices);
+        entityManager.flush();
+        entityManager.clear();
+
+        chunkCities.forEach(city -> servicesCatalogCache.evict(city.getName()));
+        searchIndex.registerAll(createdCities, createdServices);
+        chunk.clear();
+    }
+
+    // the cities of the chunk not resolved by an earlier one, created when missing
+    private List<Cities> resolveCities(List<ImportResultDTO> chunk, Map<String, Cities> cities) {
+        Map<String, String> missing = new LinkedHashMap<>();
+        chunk.stream()
+                .filter(row -> !cities.containsKey(key(row.getCity())))
+                .forEach(row -> missing.putIfAbsent(key(row.getCity()), row.getCity()));
+        if (missing.isEmpty()) {
+            return List.of();
+        }
+
+        citiesRepository.findAllByNameIn(List.copyOf(missing.values())).forEach(city -> {
+            cities.put(key(city.getName()), city);
+            missing.remove(key(city.getName()));
+        });
+        if (missing.isEmpty()) {
+            return List.of();
+        }
+        List<Cities> created = citiesRepository.saveAll(missing.values().stream()
+                .map(name -> Cities.builder().name(name).build())
+                .toList());
+        created.forEach(city -> {
+            cities.put(key(city.getName()), city);
+            cityRegistry.register(city);
+        });
+        return created;
+    }
+
+    private ImportResultDTO parseCsv(int number, String line) {
+        int comma = line.indexOf(',');
+        if (comma < 0) {
+            return invalid(number, "Expected city,service");
+        }
+        return row(number, line.substring(0, comma), line.substring(comma + 1));
+    }
+
+    private ImportResultDTO parseJson(int number, String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            return row(number, node.path("city").asText(null), node.path("name").asText(null));
+        } catch (JsonProcessingException e) {
+            return invalid(number, "Malformed JSON");
+        }
+    }
+
+    private static ImportResultDTO row(int number, String city, String name) {
+        if (city == null || city.isBlank()) {
+            return invalid(number, "Write down the name of the city where the service is located");
+        }
+        if (name == null || name.isBlank()) {
+            return invalid(number, "Write down the name of service!");
+        }
+        return ImportResultDTO.builder().line(number).city(city.strip()).name(name.strip()).build();
+    }
+
+    private static ImportResultDTO invalid(int number, String error) {
+        return ImportResultDTO.builder().line(number).status(Status.INVALID).error(error).build();
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.strip().equalsIgnoreCase("city,service") || line.strip().equalsIgnoreCase("city,name");
+    }
+
+    private static String key(String city) {
+        return city.toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String city, String name) {
+        return key(city) + '\n' + name.toLowerCase(Locale.ROOT);
+    }
+}
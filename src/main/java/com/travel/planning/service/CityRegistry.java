@@ -0,0 +1,89 @@
+package com.travel.planning.service;
+
+import com.travel.planning.model.Cities;
+import com.travel.planning.repository.CitiesRepository;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, case-insensitive snapshot of the cities table. Reads never lock, writers publish a new copy.
+ * A miss falls back to the database, so cities inserted outside the application are still found.
+ */
+@Component
+public class CityRegistry {
+    private final CitiesRepository citiesRepository;
+    private volatile Map<String, Cities> cities;
+
+    public CityRegistry(CitiesRepository citiesRepository) {
+        this.citiesRepository = citiesRepository;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void reload() {
+        publish(citiesRepository.findAll());
+    }
+
+    public Optional<Cities> find(String name) {
+        Map<String, Cities> snapshot = cities;
+        if (snapshot == null) {
+            reload();
+            snapshot = cities;
+        }
+
+        Cities city = snapshot.get(key(name));
+        if (city != null) {
+            return Optional.of(city);
+        }
+
+        Optional<Cities> stored = citiesRepository.findCitiesByName(name);
+        stored.ifPresent(this::add);
+        return stored;
+    }
+
+    /**
+     * Adds a newly saved city, after the commit when called inside a transaction.
+     */
+    public void register(Cities city) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(city);
+                }
+            });
+        } else {
+            add(city);
+        }
+    }
+
+    public int size() {
+        Map<String, Cities> snapshot = cities;
+        return snapshot == null ? 0 : snapshot.size();
+    }
+
+    private synchronized void add(Cities city) {
+        Map<String, Cities> copy = cities == null ? new HashMap<>() : new HashMap<>(cities);
+        copy.put(key(city.getName()), city);
+        cities = Map.copyOf(copy);
+    }
+
+    private synchronized void publish(List<Cities> all) {
+        Map<String, Cities> copy = new HashMap<>();
+        all.forEach(city -> copy.put(key(city.getName()), city));
+        cities = Map.copyOf(copy);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
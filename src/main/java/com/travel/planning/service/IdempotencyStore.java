@@ -0,0 +1,190 @@
+package com.travel.planning.service;
+
+import com.travel.planning.exception.IdempotencyException;
+import com.travel.planning.exception.ServicesException;
+import com.travel.planning.exception.TravelException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Results of requests sent with an {@value #HEADER} header, so a client can retry a timed out request without
+ * running it twice. A retry gets the stored result, or the stored business error, of the first request;
+ * a duplicate that arrives while the first one is still running waits for it. Unexpected failures are not
+ * stored, the next retry runs again.
+ * <p>
+ * Keys are per user and remember the request they were first used with, reusing one for another request is
+ * refused. Entries expire {@code ttl} after the first request finished. Finished requests are kept in the order
+ * they finished, which is the order they expire in, so expired ones are dropped from the head on every call and
+ * past {@code maxSize} the oldest goes first. Running requests are kept apart and never evicted, so the store
+ * outgrows {@code maxSize} only by the requests in flight. A {@code maxSize} of 0 disables the store.
+ */
+@Component
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, Entry> running = new HashMap<>();
+    private final LinkedHashMap<String, Entry> finished = new LinkedHashMap<>();
+
+    private final AtomicLong replays = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+
+    @Autowired
+    public IdempotencyStore(@Value("${idempotency.max-size:10000}") int maxSize,
+                            @Value("${idempotency.ttl:24h}") Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    public IdempotencyStore(int maxSize, Duration ttl, Clock clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the action once per user and key, {@code request} is compared with {@code equals} to the request
+     * the key was first used with. Without a key the action just runs.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String user, String key, Object request, Supplier<T> action) {
+        if (key == null || maxSize <= 0) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyException("The " + HEADER + " must have 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = user + "\n" + key;
+        while (true) {
+            Entry entry;
+            boolean first = false;
+            synchronized (this) {
+                long now = clock.millis();
+                removeExpired(now);
+                entry = running.get(id);
+                if (entry == null) {
+                    entry = finished.get(id);
+                    if (entry != null && entry.isExpired(now)) {
+                        finished.remove(id);
+                        entry = null;
+                    }
+                }
+                if (entry == null) {
+                    entry = new Entry(request);
+                    running.put(id, entry);
+                    first = true;
+                }
+            }
+            if (!Objects.equals(entry.request, request)) {
+                throw new IdempotencyException("The " + HEADER + " was already used for another request");
+            }
+            if (first) {
+                executions.incrementAndGet();
+                return run(id, entry, action);
+            }
+
+            // waits outside the lock, the first request may take as long as it needs
+            Outcome outcome = entry.outcome.join();
+            if (outcome != Outcome.RETRY) {
+                replays.incrementAndGet();
+                if (outcome.error != null) {
+                    throw outcome.error;
+                }
+                return (T) outcome.value;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return running.size() + finished.size();
+    }
+
+    public synchronized void clear() {
+        running.clear();
+        finished.clear();
+    }
+
+    public long getReplays() {
+        return replays.get();
+    }
+
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    private <T> T run(String id, Entry entry, Supplier<T> action) {
+        try {
+            T value = action.get();
+            complete(id, entry, new Outcome(value, null));
+            return value;
+        } catch (TravelException | ServicesException e) {
+            complete(id, entry, new Outcome(null, e));
+            throw e;
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                running.remove(id, entry);
+            }
+            entry.outcome.complete(Outcome.RETRY);
+            throw e;
+        }
+    }
+
+    private void complete(String id, Entry entry, Outcome outcome) {
+        synchronized (this) {
+            entry.expiresAt = clock.millis() + ttlMillis;
+            // not kept when the store was cleared while it ran
+            if (running.remove(id, entry)) {
+                finished.put(id, entry);
+            }
+            Iterator<Entry> oldest = finished.values().iterator();
+            while (!finished.isEmpty() && running.size() + finished.size() > maxSize) {
+                oldest.next();
+                oldest.remove();
+            }
+        }
+        entry.outcome.complete(outcome);
+    }
+
+    // stops at the first entry that is still valid, all later ones finished after it
+    private void removeExpired(long now) {
+        Iterator<Entry> oldest = finished.values().iterator();
+        while (oldest.hasNext() && oldest.next().isExpired(now)) {
+            oldest.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final Object request;
+        private final CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(Object request) {
+            this.request = request;
+        }
+
+        // entries of running requests never expire
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+
+    private record Outcome(Object value, RuntimeException error) {
+        static final Outcome RETRY = new Outcome(null, null);
+    }
+}
@@ -0,0 +1,479 @@
+package com.travel.planning.service;
+
+import com.travel.planning.dto.response.ConnectionDTO;
+import com.travel.planning.dto.response.RouteDTO;
+import com.travel.planning.model.Connections;
+import com.travel.planning.repository.ConnectionsRepository;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * In-memory directed graph of the connections between cities. Edges are kept in compressed sparse row form:
+ * the outgoing edges of node n are {@code offsets[n]} until {@code offsets[n + 1]} of the primitive edge arrays.
+ * Every snapshot is immutable, so searches never lock; a new connection is merged into a copy of the arrays
+ * instead of reloading the table.
+ */
+@Component
+public class RouteGraph {
+    public static final int MAX_ROUTES = 10;
+
+    public enum Weight {
+        DURATION, COST
+    }
+
+    private final ConnectionsRepository connectionsRepository;
+    private volatile Graph graph;
+
+    public RouteGraph(ConnectionsRepository connectionsRepository) {
+        this.connectionsRepository = connectionsRepository;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void reload() {
+        graph = Graph.of(connectionsRepository.findAll());
+    }
+
+    /**
+     * Up to {@code limit} loopless routes ordered by the total weight (Yen's algorithm over A* searches).
+     * Empty when a city has no connections or the cities are not connected.
+     */
+    public List<RouteDTO> find(String departure, String destination, Weight weight, int limit) {
+        Graph snapshot = snapshot();
+        Integer source = snapshot.index.get(key(departure));
+        Integer target = snapshot.index.get(key(destination));
+        if (source == null || target == null || source.equals(target) || limit < 1) {
+            return List.of();
+        }
+
+        int[] weights = weight == Weight.COST ? snapshot.costs : snapshot.durations;
+        List<RouteDTO> routes = new ArrayList<>();
+        for (int[] edges : snapshot.shortestPaths(source, target, weights, Math.min(limit, MAX_ROUTES))) {
+            routes.add(snapshot.route(edges));
+        }
+        return routes;
+    }
+
+    /**
+     * Adds a newly saved connection, after the commit when called inside a transaction.
+     */
+    public void register(Connections connection) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(connection);
+                }
+            });
+        } else {
+            add(connection);
+        }
+    }
+
+    public int size() {
+        Graph snapshot = graph;
+        return snapshot == null ? 0 : snapshot.targets.length;
+    }
+
+    private synchronized void add(Connections connection) {
+        graph = snapshot().with(connection.getDeparture().getName(), connection.getDestination().getName(),
+                connection.getDuration(), connection.getCost());
+    }
+
+    private Graph snapshot() {
+        Graph snapshot = graph;
+        if (snapshot == null) {
+            reload();
+            snapshot = graph;
+        }
+        return snapshot;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Graph {
+        private final String[] names;
+        private final Map<String, Integer> index;
+        private final int[] offsets;
+        private final int[] sources;
+        private final int[] targets;
+        private final int[] durations;
+        private final int[] costs;
+        private final int[] incomingOffsets;
+        private final int[] incoming;
+
+        private Graph(String[] names, Map<String, Integer> index, int[] offsets, int[] sources, int[] targets,
+                      int[] durations, int[] costs) {
+            this.names = names;
+            this.index = index;
+            this.offsets = offsets;
+            this.sources = sources;
+            this.targets = targets;
+            this.durations = durations;
+            this.costs = costs;
+
+            // edges grouped by target, for searching backwards from a destination
+            incomingOffsets = new int[names.length + 1];
+            for (int target : targets) {
+                incomingOffsets[target + 1]++;
+            }
+            for (int node = 0; node < names.length; node++) {
+                incomingOffsets[node + 1] += incomingOffsets[node];
+            }
+            incoming = new int[targets.length];
+            int[] next = Arrays.copyOf(incomingOffsets, names.length);
+            for (int edge = 0; edge < targets.length; edge++) {
+                incoming[next[targets[edge]]++] = edge;
+            }
+        }
+
+        static Graph of(List<Connections> connections) {
+            List<String> names = new ArrayList<>();
+            Map<String, Integer> index = new HashMap<>();
+            int[] from = new int[connections.size()];
+            int[] to = new int[connections.size()];
+            for (int i = 0; i < connections.size(); i++) {
+                from[i] = node(connections.get(i).getDeparture().getName(), names, index);
+                to[i] = node(connections.get(i).getDestination().getName(), names, index);
+            }
+
+            int[] offsets = new int[names.size() + 1];
+            for (int node : from) {
+                offsets[node + 1]++;
+            }
+            for (int node = 0; node < names.size(); node++) {
+                offsets[node + 1] += offsets[node];
+            }
+
+            int[] next = Arrays.copyOf(offsets, names.size());
+            int[] sources = new int[from.length];
+            int[] targets = new int[from.length];
+            int[] durations = new int[from.length];
+            int[] costs = new int[from.length];
+            for (int i = 0; i < from.length; i++) {
+                int edge = next[from[i]]++;
+                sources[edge] = from[i];
+                targets[edge] = to[i];
+                durations[edge] = connections.get(i).getDuration();
+                costs[edge] = connections.get(i).getCost();
+            }
+            return new Graph(names.toArray(String[]::new), Map.copyOf(index), offsets, sources, targets,
+                    durations, costs);
+        }
+
+        /**
+         * Copy with the connection inserted, or with new weights when the cities are already connected.
+         */
+        Graph with(String departure, String destination, int duration, int cost) {
+            List<String> names = new ArrayList<>(Arrays.asList(this.names));
+            Map<String, Integer> index = new HashMap<>(this.index);
+            int from = node(departure, names, index);
+            int to = node(destination, names, index);
+            int[] offsets = Arrays.copyOf(this.offsets, names.size() + 1);
+            for (int node = this.names.length + 1; node < offsets.length; node++) {
+                offsets[node] = this.offsets[this.names.length];
+            }
+
+            for (int edge = offsets[from]; edge < offsets[from + 1]; edge++) {
+                if (targets[edge] == to) {
+                    int[] durations = this.durations.clone();
+                    int[] costs = this.costs.clone();
+                    durations[edge] = duration;
+                    costs[edge] = cost;
+                    return new Graph(this.names, this.index, this.offsets, sources, targets, durations, costs);
+                }
+            }
+
+            int at = offsets[from + 1];
+            for (int node = from + 1; node < offsets.length; node++) {
+                offsets[node]++;
+            }
+            return new Graph(names.toArray(String[]::new), Map.copyOf(index), offsets,
+                    insert(sources, at, from), insert(targets, at, to),
+                    insert(durations, at, duration), insert(costs, at, cost));
+        }
+
+        List<int[]> shortestPaths(int source, int target, int[] weights, int limit) {
+            List<int[]> found = new ArrayList<>();
+            Search search = new Search(this, weights, target);
+            if (!search.reaches(source)) {
+                return found;
+            }
+            found.add(search.path(source, null, null));
+
+            PriorityQueue<Path> candidates = new PriorityQueue<>();
+            Set<Path> seen = new HashSet<>();
+            seen.add(new Path(found.get(0), weights));
+            boolean[] removedNodes = new boolean[names.length];
+            boolean[] removedEdges = new boolean[targets.length];
+            while (found.size() < limit) {
+                int[] previous = found.get(found.size() - 1);
+                for (int i = 0; i < previous.length; i++) {
+                    // paths sharing the first i edges may not leave the spur node the same way again
+                    for (int[] path : found) {
+                        if (path.length > i && Arrays.equals(path, 0, i, previous, 0, i)) {
+                            removedEdges[path[i]] = true;
+                        }
+                    }
+                    for (int j = 0; j < i; j++) {
+                        removedNodes[sources[previous[j]]] = true;
+                    }
+
+                    int[] spur = search.path(sources[previous[i]], removedNodes, removedEdges);
+                    if (spur != null) {
+                        int[] edges = Arrays.copyOf(previous, i + spur.length);
+                        System.arraycopy(spur, 0, edges, i, spur.length);
+                        Path candidate = new Path(edges, weights);
+                        if (seen.add(candidate)) {
+                            candidates.add(candidate);
+                        }
+                    }
+
+                    for (int[] path : found) {
+                        if (path.length > i) {
+                            removedEdges[path[i]] = false;
+                        }
+                    }
+                    for (int j = 0; j < i; j++) {
+                        removedNodes[sources[previous[j]]] = false;
+                    }
+                }
+
+                Path next = candidates.poll();
+                if (next == null) {
+                    break;
+                }
+                found.add(next.edges);
+            }
+            return found;
+        }
+
+        RouteDTO route(int[] edges) {
+            List<ConnectionDTO> legs = new ArrayList<>(edges.length);
+            long duration = 0;
+            long cost = 0;
+            for (int edge : edges) {
+                legs.add(ConnectionDTO.builder()
+                        .departure(names[sources[edge]])
+                        .destination(names[targets[edge]])
+                        .duration(durations[edge])
+                        .cost(costs[edge])
+                        .build());
+                duration += durations[edge];
+                cost += costs[edge];
+            }
+            return RouteDTO.builder().legs(legs).duration(duration).cost(cost).build();
+        }
+
+        private static int node(String name, List<String> names, Map<String, Integer> index) {
+            return index.computeIfAbsent(key(name), key -> {
+                names.add(name);
+                return names.size() - 1;
+            });
+        }
+
+        private static int[] insert(int[] values, int at, int value) {
+            int[] copy = new int[values.length + 1];
+            System.arraycopy(values, 0, copy, 0, at);
+            copy[at] = value;
+            System.arraycopy(values, at, copy, at + 1, values.length - at);
+            return copy;
+        }
+    }
+
+    /**
+     * Searches towards one target. The exact distances to the target, computed once backwards over the incoming
+     * edges, guide A* in every later search: removing nodes or edges only makes routes longer, so the estimate
+     * stays admissible and the search follows the best remaining route instead of flooding the graph.
+     * The work arrays are shared between the searches, a generation stamp marks the entries set by the current one.
+     */
+    private static final class Search {
+        private final Graph graph;
+        private final int[] weights;
+        private final int target;
+        private final long[] remaining;
+        private final long[] distances;
+        private final int[] via;
+        private final int[] visited;
+        private final Heap heap;
+        private int generation;
+
+        Search(Graph graph, int[] weights, int target) {
+            int nodes = graph.names.length;
+            this.graph = graph;
+            this.weights = weights;
+            this.target = target;
+            remaining = new long[nodes];
+            distances = new long[nodes];
+            via = new int[nodes];
+            visited = new int[nodes];
+            heap = new Heap(graph.targets.length + 1);
+
+            Arrays.fill(remaining, Long.MAX_VALUE);
+            remaining[target] = 0;
+            heap.push(0, target);
+            while (heap.size > 0) {
+                long distance = heap.keys[0];
+                int node = heap.pop();
+                if (distance > remaining[node]) {
+                    continue;
+                }
+                for (int i = graph.incomingOffsets[node]; i < graph.incomingOffsets[node + 1]; i++) {
+                    int edge = graph.incoming[i];
+                    int previous = graph.sources[edge];
+                    long candidate = distance + weights[edge];
+                    if (candidate < remaining[previous]) {
+                        remaining[previous] = candidate;
+                        heap.push(candidate, previous);
+                    }
+                }
+            }
+        }
+
+        boolean reaches(int node) {
+            return remaining[node] != Long.MAX_VALUE;
+        }
+
+        /**
+         * Edges of the shortest path from {@code source} that avoids the removed nodes and edges, or null.
+         */
+        int[] path(int source, boolean[] removedNodes, boolean[] removedEdges) {
+            if (!reaches(source)) {
+                return null;
+            }
+            generation++;
+            heap.size = 0;
+            visited[source] = generation;
+            distances[source] = 0;
+            heap.push(remaining[source], source);
+
+            boolean found = false;
+            while (heap.size > 0) {
+                long estimate = heap.keys[0];
+                int node = heap.pop();
+                if (estimate > distances[node] + remaining[node]) {
+                    continue;
+                }
+                if (node == target) {
+                    found = true;
+                    break;
+                }
+                for (int edge = graph.offsets[node]; edge < graph.offsets[node + 1]; edge++) {
+                    int next = graph.targets[edge];
+                    if (!reaches(next) || (removedEdges != null && removedEdges[edge])
+                            || (removedNodes != null && removedNodes[next])) {
+                        continue;
+                    }
+                    long candidate = distances[node] + weights[edge];
+                    if (visited[next] != generation || candidate < distances[next]) {
+                        visited[next] = generation;
+                        distances[next] = candidate;
+                        via[next] = edge;
+                        heap.push(candidate + remaining[next], next);
+                    }
+                }
+            }
+            if (!found) {
+                return null;
+            }
+
+            int length = 0;
+            for (int node = target; node != source; node = graph.sources[via[node]]) {
+                length++;
+            }
+            int[] edges = new int[length];
+            for (int node = target; node != source; node = graph.sources[via[node]]) {
+                edges[--length] = via[node];
+            }
+            return edges;
+        }
+    }
+
+    private static final class Path implements Comparable<Path> {
+        private final int[] edges;
+        private final long weight;
+
+        Path(int[] edges, int[] weights) {
+            long weight = 0;
+            for (int edge : edges) {
+                weight += weights[edge];
+            }
+            this.edges = edges;
+            this.weight = weight;
+        }
+
+        @Override
+        public int compareTo(Path other) {
+            int compared = Long.compare(weight, other.weight);
+            return compared != 0 ? compared : Integer.compare(edges.length, other.edges.length);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Path path && Arrays.equals(edges, path.edges);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(edges);
+        }
+    }
+
+    private static final class Heap {
+        private final long[] keys;
+        private final int[] nodes;
+        private int size;
+
+        Heap(int capacity) {
+            keys = new long[capacity];
+            nodes = new int[capacity];
+        }
+
+        void push(long key, int node) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                nodes[i] = nodes[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            long key = keys[--size];
+            int node = nodes[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                nodes[i] = nodes[child];
+                i = child;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.travel.planning.service;
+
+import com.travel.planning.configuration.Mapper;
+import com.travel.planning.dto.request.ConnectionRequest;
+import com.travel.planning.dto.response.ConnectionDTO;
+import com.travel.planning.dto.response.RouteDTO;
+import com.travel.planning.exception.TravelException;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Connections;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ConnectionsRepository;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@AllArgsConstructor
+public class RoutePlanningService {
+    private final ConnectionsRepository connectionsRepository;
+    private final CitiesRepository citiesRepository;
+    private final CityRegistry cityRegistry;
+    private final RouteGraph routeGraph;
+    private final SearchIndex searchIndex;
+
+    public List<RouteDTO> findRoutes(String departure, String destination, RouteGraph.Weight weight, int limit) {
+        if (limit < 1 || limit > RouteGraph.MAX_ROUTES) {
+            throw new TravelException("The number of routes must be between 1 and " + RouteGraph.MAX_ROUTES);
+        }
+        if (cityRegistry.find(departure).isEmpty() || cityRegistry.find(destination).isEmpty()) {
+            throw new TravelException("We cannot pick you up from your city or deliver you to your destination");
+        }
+
+        List<RouteDTO> routes = routeGraph.find(departure, destination, weight, limit);
+        if (routes.isEmpty()) {
+            throw new TravelException("There is no route between these cities");
+        }
+        return routes;
+    }
+
+    /**
+     * The route graph picks the connection up after the commit, without reloading the table.
+     * A connection that already exists is rejected by the unique key of the route.
+     */
+    @Transactional
+    public ConnectionDTO addConnection(ConnectionRequest connectionRequest) {
+        if (connectionRequest.getDeparture().equalsIgnoreCase(connectionRequest.getDestination())) {
+            throw new TravelException("The departure and destination cities are the same");
+        }
+        Cities departure = city(connectionRequest.getDeparture());
+        Cities destination = city(connectionRequest.getDestination());
+
+        Connections connection = Connections.builder()
+                .departure(departure)
+                .destination(destination)
+                .duration(connectionRequest.getDuration())
+                .cost(connectionRequest.getCost())
+                .build();
+        try {
+            connection = connectionsRepository.saveAndFlush(connection);
+        } catch (DataIntegrityViolationException e) {
+            // the flush may also insert a new city, so only the constraint name tells the keys apart
+            if (UniqueConstraints.isViolated(e, Connections.ROUTE_UNIQUE_CONSTRAINT)) {
+                throw new TravelException("The connection already exists");
+            }
+            throw e;
+        }
+        routeGraph.register(connection);
+
+        return Mapper.mapToConnectionDTO(connection);
+    }
+
+    private Cities city(String name) {
+        return cityRegistry.find(name)
+                .orElseGet(() -> {
+                    Cities saved = citiesRepository.save(Cities.builder().name(name).build());
+                    cityRegistry.register(saved);
+                    searchIndex.register(saved);
+                    return saved;
+                });
+    }
+}
@@ -0,0 +1,377 @@
+package com.travel.planning.service;
+
+import com.travel.planning.dto.response.SearchResultDTO;
+import com.travel.planning.dto.response.SearchResultDTO.Type;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Services;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServicesRepository;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Autocomplete over city and service names. Every word start of every name is kept in one sorted array, so a
+ * prefix lookup is a binary search. The same array is walked like a trie to find names with typos: the edit
+ * distance rows are shared between words with a common prefix and whole ranges are skipped once the distance
+ * cannot get back under the limit. Snapshots are immutable, new cities and services are merged into a copy after
+ * the commit.
+ */
+@Component
+public class SearchIndex {
+    public static final int MAX_RESULTS = 50;
+    // prefix matches looked at per query, a short prefix of a very common word may match thousands of names
+    private static final int MAX_SCANNED = 1000;
+
+    private final CitiesRepository citiesRepository;
+    private final ServicesRepository servicesRepository;
+    private volatile Index index;
+
+    public SearchIndex(CitiesRepository citiesRepository, ServicesRepository servicesRepository) {
+        this.citiesRepository = citiesRepository;
+        this.servicesRepository = servicesRepository;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void reload() {
+        List<Entry> entries = new ArrayList<>();
+        citiesRepository.findAll().forEach(city -> entries.add(Entry.of(city)));
+        servicesRepository.findAllBy().forEach(service -> entries.add(Entry.of(service)));
+        index = Index.EMPTY.with(entries);
+    }
+
+    /**
+     * Best matches first: the whole name, a name prefix, a prefix of a later word, then names within one typo
+     * for queries of four or five characters, two for longer ones. {@code type} may be null for both cities and
+     * services.
+     */
+    public List<SearchResultDTO> search(String query, Type type, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        return snapshot().search(normalized, type, Math.min(limit, MAX_RESULTS));
+    }
+
+    public void register(Cities city) {
+        register(List.of(Entry.of(city)));
+    }
+
+    public void register(Services service) {
+        register(List.of(Entry.of(service)));
+    }
+
+    public void registerAll(Collection<Cities> cities, Collection<Services> services) {
+        List<Entry> entries = new ArrayList<>(cities.size() + services.size());
+        cities.forEach(city -> entries.add(Entry.of(city)));
+        services.forEach(service -> entries.add(Entry.of(service)));
+        register(entries);
+    }
+
+    public int size() {
+        Index snapshot = index;
+        return snapshot == null ? 0 : snapshot.entries.length;
+    }
+
+    // after the commit when called inside a transaction
+    private void register(List<Entry> entries) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(entries);
+                }
+            });
+        } else {
+            add(entries);
+        }
+    }
+
+    private synchronized void add(List<Entry> entries) {
+        index = snapshot().with(entries);
+    }
+
+    private Index snapshot() {
+        Index snapshot = index;
+        if (snapshot == null) {
+            reload();
+            snapshot = index;
+        }
+        return snapshot;
+    }
+
+    private static String normalize(String text) {
+        return String.join(" ", text.strip().toLowerCase(Locale.ROOT).split("\\s+"));
+    }
+
+    private static final class Entry {
+        private final Type type;
+        private final String name;
+        private final String city;
+        private final String key;
+        private final int[] words;
+
+        private Entry(Type type, String name, String city) {
+            this.type = type;
+            this.name = name;
+            this.city = city;
+            this.key = normalize(name);
+            List<Integer> starts = new ArrayList<>();
+            for (int i = 0; i < key.length(); i++) {
+                if (i == 0 || key.charAt(i - 1) == ' ') {
+                    starts.add(i);
+                }
+            }
+            this.words = starts.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        static Entry of(Cities city) {
+            return new Entry(Type.CITY, city.getName(), null);
+        }
+
+        static Entry of(Services service) {
+            return new Entry(Type.SERVICE, service.getName(), service.getCity().getName());
+        }
+
+        String identity() {
+            return type + "\n" + (city == null ? "" : normalize(city)) + "\n" + key;
+        }
+
+        SearchResultDTO toDTO() {
+            return SearchResultDTO.builder().type(type).name(name).city(city).build();
+        }
+    }
+
+    private static final class Index {
+        static final Index EMPTY = new Index(new Entry[0], new String[0], new int[0], Set.of());
+
+        private final Entry[] entries;
+        private final String[] words;
+        private final int[] wordEntries;
+        private final Set<String> identities;
+
+        private Index(Entry[] entries, String[] words, int[] wordEntries, Set<String> identities) {
+            this.entries = entries;
+            this.words = words;
+            this.wordEntries = wordEntries;
+            this.identities = identities;
+        }
+
+        /**
+         * Copy with the new entries merged into the sorted word array.
+         */
+        Index with(List<Entry> added) {
+            Set<String> freshIdentities = new HashSet<>();
+            List<Entry> fresh = new ArrayList<>();
+            for (Entry entry : added) {
+                String identity = entry.identity();
+                if (!this.identities.contains(identity) && freshIdentities.add(identity)) {
+                    fresh.add(entry);
+                }
+            }
+            if (fresh.isEmpty()) {
+                return this;
+            }
+            Set<String> identities = new HashSet<>(this.identities);
+            identities.addAll(freshIdentities);
+
+            Entry[] entries = Arrays.copyOf(this.entries, this.entries.length + fresh.size());
+            List<Integer> freshWords = new ArrayList<>();
+            for (int i = 0; i < fresh.size(); i++) {
+                int id = this.entries.length + i;
+                entries[id] = fresh.get(i);
+                for (int word = 0; word < entries[id].words.length; word++) {
+                    freshWords.add(id);
+                    freshWords.add(entries[id].words[word]);
+                }
+            }
+
+            // sort the new word suffixes, then merge them with the already sorted ones
+            int count = freshWords.size() / 2;
+            Integer[] order = new Integer[count];
+            String[] suffixes = new String[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+                suffixes[i] = entries[freshWords.get(2 * i)].key.substring(freshWords.get(2 * i + 1));
+            }
+            Arrays.sort(order, Comparator.comparing(i -> suffixes[i]));
+
+            String[] words = new String[this.words.length + count];
+            int[] wordEntries = new int[words.length];
+            int old = 0;
+            int next = 0;
+            for (int i = 0; i < words.length; i++) {
+                if (next == count || (old < this.words.length && this.words[old].compareTo(suffixes[order[next]]) <= 0)) {
+                    words[i] = this.words[old];
+                    wordEntries[i] = this.wordEntries[old++];
+                } else {
+                    words[i] = suffixes[order[next]];
+                    wordEntries[i] = freshWords.get(2 * order[next++]);
+                }
+            }
+            return new Index(entries, words, wordEntries, identities);
+        }
+
+        List<SearchResultDTO> search(String query, Type type, int limit) {
+            Map<Integer, Match> matches = new HashMap<>();
+            int scanned = 0;
+            for (int i = lowerBound(query); i < words.length && words[i].startsWith(query) && scanned < MAX_SCANNED;
+                 i++, scanned++) {
+                Entry entry = entries[wordEntries[i]];
+                int rank = entry.key.equals(query) ? 0 : entry.key.startsWith(query) ? 1 : 2;
+                offer(matches, wordEntries[i], type, rank, 0);
+            }
+
+            int typos = query.length() <= 3 ? 0 : query.length() <= 5 ? 1 : 2;
+            long prefixMatches = matches.values().stream().filter(match -> match.rank <= 2).count();
+            if (typos > 0 && prefixMatches < limit) {
+                fuzzy(query, type, typos, matches);
+            }
+
+            // only the best limit matches are kept, sorting every candidate costs more than the scan itself
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+            for (Match match : matches.values()) {
+                if (best.size() < limit || match.compareTo(best.peek()) < 0) {
+                    best.add(match);
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+            return best.stream()
+                    .sorted()
+                    .map(match -> entries[match.id].toDTO())
+                    .toList();
+        }
+
+        /**
+         * Walks the sorted words like a trie. Row {@code d} holds the edit distances between every query prefix and
+         * the first {@code d} letters of the word, so a word only computes the rows past its common prefix with the
+         * previous one. When every value of a row is over the limit no word starting with those letters can match
+         * and the walk jumps past them. Swapping two adjacent letters counts as one edit (optimal string alignment).
+         */
+        private void fuzzy(String query, Type type, int typos, Map<Integer, Match> matches) {
+            int length = query.length();
+            int depth = length + typos;
+            int[][] rows = new int[depth + 1][length + 1];
+            int[] best = new int[depth + 1];
+            for (int j = 0; j <= length; j++) {
+                rows[0][j] = j;
+            }
+            best[0] = length;
+
+            String previous = "";
+            int scanned = 0;
+            int i = 0;
+            while (i < words.length && scanned < MAX_SCANNED) {
+                String word = words[i];
+                int end = Math.min(word.length(), depth);
+                int shared = commonPrefix(previous, word, end);
+                int pruned = -1;
+                for (int d = shared + 1; d <= end && pruned < 0; d++) {
+                    if (row(query, word, rows, d) > typos) {
+                        pruned = d;
+                    }
+                    best[d] = Math.min(best[d - 1], rows[d][length]);
+                }
+                previous = word;
+                // words sharing the first pruned letters all end up with the distance reached before them
+                int next = pruned > 0 ? lowerBound(word.substring(0, pruned) + Character.MAX_VALUE) : i + 1;
+                int distance = best[pruned > 0 ? pruned : end];
+                for (; i < next; i++) {
+                    if (distance <= typos && scanned++ < MAX_SCANNED) {
+                        offer(matches, wordEntries[i], type, 3, distance);
+                    }
+                }
+            }
+        }
+
+        // fills row d and returns its smallest value
+        private static int row(String query, String word, int[][] rows, int d) {
+            int[] row = rows[d];
+            int[] above = rows[d - 1];
+            char letter = word.charAt(d - 1);
+            row[0] = d;
+            int min = d;
+            for (int j = 1; j < row.length; j++) {
+                int value = Math.min(above[j - 1] + (letter == query.charAt(j - 1) ? 0 : 1),
+                        Math.min(above[j], row[j - 1]) + 1);
+                if (d > 1 && j > 1 && letter == query.charAt(j - 2) && word.charAt(d - 2) == query.charAt(j - 1)) {
+                    value = Math.min(value, rows[d - 2][j - 2] + 1);
+                }
+                row[j] = value;
+                min = Math.min(min, value);
+            }
+            return min;
+        }
+
+        private static int commonPrefix(String first, String second, int limit) {
+            int length = Math.min(limit, first.length());
+            int i = 0;
+            while (i < length && first.charAt(i) == second.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+
+        private void offer(Map<Integer, Match> matches, int id, Type type, int rank, int distance) {
+            Entry entry = entries[id];
+            if (type != null && entry.type != type) {
+                return;
+            }
+            Match match = new Match(id, rank, distance, entry);
+            matches.merge(id, match, (current, candidate) -> candidate.compareTo(current) < 0 ? candidate : current);
+        }
+
+        private int lowerBound(String query) {
+            int low = 0;
+            int high = words.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (words[middle].compareTo(query) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Match implements Comparable<Match> {
+        private final int id;
+        private final int rank;
+        private final int distance;
+        private final Entry entry;
+
+        Match(int id, int rank, int distance, Entry entry) {
+            this.id = id;
+            this.rank = rank;
+            this.distance = distance;
+            this.entry = entry;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            int compared = Integer.compare(rank, other.rank);
+            if (compared == 0) {
+                compared = Integer.compare(distance, other.distance);
+            }
+            if (compared == 0) {
+                compared = entry.type.compareTo(other.entry.type);
+            }
+            if (compared == 0) {
+                compared = Integer.compare(entry.key.length(), other.entry.key.length());
+            }
+            if (compared == 0) {
+                compared = entry.key.compareTo(other.entry.key);
+            }
+            return compared != 0 ? compared : Integer.compare(id, other.id);
+        }
+    }
+}
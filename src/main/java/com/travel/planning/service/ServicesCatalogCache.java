@@ -0,0 +1,120 @@
+package com.travel.planning.service;
+
+import com.travel.planning.dto.response.ServicesDTO;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU cache of mapped services per city, plus one entry for the whole catalog.
+ * Lists are immutable and shared between requests. The only writer is addService, which evicts the city
+ * and the whole-catalog entry.
+ */
+@Component
+public class ServicesCatalogCache {
+    private static final String ALL = "*";
+
+    private final int maxSize;
+    private final Map<String, List<ServicesDTO>> entries;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ServicesCatalogCache(@Value("${services.cache.max-size:1024}") int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<ServicesDTO>> eldest) {
+                if (size() > ServicesCatalogCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached services of the city, or of the whole catalog when {@code city} is null.
+     * The loader runs outside the lock, its result is dropped if the city was evicted meanwhile.
+     */
+    public List<ServicesDTO> get(String city, Supplier<List<ServicesDTO>> loader) {
+        String key = key(city);
+        long loadedAt;
+        synchronized (this) {
+            List<ServicesDTO> cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            loadedAt = generation;
+        }
+
+        misses.incrementAndGet();
+        List<ServicesDTO> loaded = List.copyOf(loader.get());
+        synchronized (this) {
+            if (generation == loadedAt && maxSize > 0) {
+                entries.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Evicts the city and the whole catalog, after the commit when called inside a transaction.
+     */
+    public void evict(String city) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(city);
+                }
+            });
+        } else {
+            remove(city);
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private synchronized void remove(String city) {
+        generation++;
+        entries.remove(key(city));
+        entries.remove(ALL);
+    }
+
+    private static String key(String city) {
+        return city == null ? ALL : city.toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,43 +2,68 @@ package com.travel.planning.service;
 
 import com.travel.planning.configuration.Mapper;
 import com.travel.planning.dto.request.AddServiceRequest;
+import com.travel.planning.dto.request.BatchServiceRequest;
+import com.travel.planning.dto.request.CapacityRequest;
 import com.travel.planning.dto.request.DeleteRequest;
 import com.travel.planning.dto.request.ServiceRequest;
 import com.travel.planning.dto.request.TravelRequest;
+import com.travel.planning.dto.response.BatchBookingDTO;
+import com.travel.planning.dto.response.BookingResultDTO;
+import com.travel.planning.dto.response.CapacityDTO;
+import com.travel.planning.dto.response.SearchResultDTO;
 import com.travel.planning.dto.response.ServicesDTO;
 import com.travel.planning.dto.response.TravelDTO;
+import com.travel.planning.dto.response.TravelPageDTO;
 import com.travel.planning.exception.ServicesException;
 import com.travel.planning.exception.TravelException;
 import com.travel.planning.model.Cities;
+import com.travel.planning.model.ServiceCapacity;
 import com.travel.planning.model.Services;
 import com.travel.planning.model.Travel;
 import com.travel.planning.model.User;
 import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServiceCapacityRepository;
 import com.travel.planning.repository.ServicesRepository;
 import com.travel.planning.repository.TravelRepository;
+import com.travel.planning.repository.TravelRow;
 
 import lombok.AllArgsConstructor;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class TravelPlanningService {
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DELETE_CHUNK_SIZE = 500;
+
     private final CitiesRepository citiesRepository;
     private final ServicesRepository servicesRepository;
     private final TravelRepository travelRepository;
+    private final ServiceCapacityRepository capacityRepository;
+    private final CityRegistry cityRegistry;
+    private final ServicesCatalogCache servicesCatalogCache;
+    private final SearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * One travel per user is enforced by the unique constraint on travel.user_id, the insert is flushed
+     * right away so a concurrent or repeated create fails here instead of at commit.
+     */
     @Transactional
     public TravelDTO createTravel(TravelRequest travelRequest, User user) {
-        if (travelRepository.findTravelByUser(user).isPresent()) {
-            throw new TravelException("You have already planned your travel");
-        }
-
-        Optional<Cities> departure = citiesRepository.findCitiesByName(travelRequest.getDeparture());
-        Optional<Cities> destination = citiesRepository.findCitiesByName(travelRequest.getDestination());
+        Optional<Cities> departure = cityRegistry.find(travelRequest.getDeparture());
+        Optional<Cities> destination = cityRegistry.find(travelRequest.getDestination());
         if (departure.isEmpty() || destination.isEmpty()) {
             throw new TravelException("We cannot pick you up from your city or deliver you to your destination");
         }
@@ -50,29 +75,39 @@ public class TravelPlanningService {
                 .user(user)
                 .services(null)
                 .build();
-        travelRepository.save(travel);
+        try {
+            travelRepository.saveAndFlush(travel);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isSoleUniqueKeyViolated(e, Travel.USER_UNIQUE_CONSTRAINT)) {
+                throw new TravelException("You have already planned your travel");
+            }
+            throw e;
+        }
 
         return Mapper.mapToTravelDTO(travel);
     }
 
     public List<ServicesDTO> getServices(User user) {
         Travel travel = travelRepository.findTravelByUser(user).orElseGet(Travel::new);
+        Cities destination = travel.getDestination();
 
-        List<Services> services;
-        if (Optional.ofNullable(travel.getDestination()).isPresent()) {
-            services = servicesRepository.findAllByCity(travel.getDestination());
-        } else {
-            services = servicesRepository.findAll();
-        }
+        List<ServicesDTO> services = servicesCatalogCache.get(destination == null ? null : destination.getName(),
+                () -> (destination == null ? servicesRepository.findAll() : servicesRepository.findAllByCity(destination))
+                        .stream()
+                        .map(Mapper::mapToServicesDTO)
+                        .toList());
 
         if (services.isEmpty()) {
             throw new ServicesException("No services in the city");
         }
-        return services.stream()
-                .map(Mapper::mapToServicesDTO)
-                .toList();
+        return services;
     }
 
+    /**
+     * Books the service with a single insert into the join table, already booked services are neither loaded
+     * nor rewritten. Booking the same service twice has no effect. A new booking takes a place of the service
+     * on the travel date, a fully booked service rolls the insert back.
+     */
     @Transactional
     public TravelDTO bookService(ServiceRequest serviceRequest, User user) {
         Travel travel = travelRepository.findTravelByUser(user)
@@ -80,15 +115,74 @@ public class TravelPlanningService {
         Services service = servicesRepository.findByName(serviceRequest.getName())
                 .orElseThrow(() -> new ServicesException("There is no service with that name"));
 
-        if (Optional.ofNullable(travel.getServices()).isEmpty()) {
-            travel.setServices(new LinkedList<>());
+        if (travelRepository.insertService(travel.getId(), service.getId()) == 1) {
+            reserve(service.getId(), travel.getTravel_time().toLocalDate());
         }
-        travel.getServices().add(service);
-        travelRepository.save(travel);
 
+        // the lazy services collection is read after the insert, so it already contains the new booking
         return Mapper.mapToTravelDTO(travel);
     }
 
+    /**
+     * Resolves all names with one IN query and books the services of the travel's destination in one JDBC batch.
+     * Names that cannot be booked are reported in the results instead of failing the whole request.
+     */
+    @Transactional
+    public BatchBookingDTO bookServices(BatchServiceRequest batchServiceRequest, User user) {
+        Travel travel = travelRepository.findTravelByUser(user)
+                .orElseThrow(() -> new TravelException("You haven't planned a travel"));
+        String destination = travel.getDestination().getName();
+
+        Map<String, List<Services>> found = new HashMap<>();
+        servicesRepository.findAllByNameIn(new HashSet<>(batchServiceRequest.getNames()))
+                .forEach(service -> found.computeIfAbsent(key(service.getName()), name -> new ArrayList<>()).add(service));
+
+        List<BookingResultDTO> results = new ArrayList<>();
+        List<BookingResultDTO> booked = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String name : batchServiceRequest.getNames()) {
+            List<Services> candidates = found.getOrDefault(key(name), List.of());
+            Optional<Services> service = candidates.stream()
+                    .filter(candidate -> candidate.getCity().getName().equalsIgnoreCase(destination))
+                    .findFirst();
+
+            if (!seen.add(key(name))) {
+                results.add(bookingResult(name, BookingResultDTO.Status.DUPLICATE, "The service is listed twice"));
+            } else if (candidates.isEmpty()) {
+                results.add(bookingResult(name, BookingResultDTO.Status.NOT_FOUND, "There is no service with that name"));
+            } else if (service.isEmpty()) {
+                results.add(bookingResult(name, BookingResultDTO.Status.WRONG_CITY,
+                        "The service is not in your destination city"));
+            } else {
+                BookingResultDTO result = bookingResult(name, BookingResultDTO.Status.BOOKED, null);
+                results.add(result);
+                booked.add(result);
+                ids.add(service.get().getId());
+            }
+        }
+
+        int[] counts = ids.isEmpty() ? new int[0] : travelRepository.insertServices(travel.getId(), ids);
+        List<Long> inserted = new ArrayList<>();
+        List<BookingResultDTO> insertedResults = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                booked.get(i).setStatus(BookingResultDTO.Status.ALREADY_BOOKED);
+            } else {
+                inserted.add(ids.get(i));
+                insertedResults.add(booked.get(i));
+            }
+        }
+        if (!inserted.isEmpty()) {
+            reserveAll(travel, inserted, insertedResults);
+        }
+
+        return BatchBookingDTO.builder()
+                .travel(Mapper.mapToTravelDTO(travel))
+                .results(results)
+                .build();
+    }
+
     @Transactional
     public boolean completeTravel(User user) {
         Optional<Travel> travel = travelRepository.findTravelByUser(user);
@@ -96,43 +190,237 @@ public class TravelPlanningService {
             return false;
         }
 
+        release(List.of(travel.get()));
         travelRepository.delete(travel.get());
         return true;
     }
 
     public List<TravelDTO> getTravels() {
-        return travelRepository.findAll().stream()
+        return travelRepository.findAllWithServices().stream()
                 .map(Mapper::mapToTravelDTO)
                 .toList();
     }
 
-    @Transactional
-    public List<TravelDTO> deleteTrips(DeleteRequest deleteRequest) {
-        Set<Travel> travels = new HashSet<>();
-        travels.addAll(travelRepository.findAllByDeparture(
-                Cities.builder().name(deleteRequest.getDeparture()).build()));
-        travels.addAll(travelRepository.findAllByDestination(
-                Cities.builder().name(deleteRequest.getDestination()).build()));
+    @Transactional(readOnly = true)
+    public TravelPageDTO getTravels(Long after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new TravelException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
 
-        List<TravelDTO> deleted = travels.stream()
+        List<Long> ids = travelRepository.findIdsAfter(after == null ? 0L : after, Limit.of(size));
+        List<TravelDTO> travels = ids.isEmpty() ? List.of() : travelRepository.findAllWithServicesByIdIn(ids).stream()
                 .map(Mapper::mapToTravelDTO)
                 .toList();
-        travelRepository.deleteAll(travels);
 
-        return deleted;
+        return TravelPageDTO.builder()
+                .travels(travels)
+                .next(ids.size() == size ? ids.get(ids.size() - 1) : null)
+                .build();
+    }
+
+    /**
+     * Hands every trip to the consumer as soon as its last row is read, so memory use does not depend on
+     * the number of trips. Rows come ordered by travel id, one row per booked service.
+     */
+    @Transactional(readOnly = true)
+    public void streamTravels(Consumer<TravelDTO> consumer) {
+        try (Stream<TravelRow> rows = travelRepository.streamAllRows()) {
+            Long currentId = null;
+            TravelDTO current = null;
+            for (Iterator<TravelRow> iterator = rows.iterator(); iterator.hasNext(); ) {
+                TravelRow row = iterator.next();
+                if (!row.getId().equals(currentId)) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    currentId = row.getId();
+                    current = Mapper.mapToTravelDTO(row);
+                }
+                if (row.getService() != null) {
+                    current.getServices().add(Mapper.mapToServicesDTO(row));
+                }
+            }
+            if (current != null) {
+                consumer.accept(current);
+            }
+        }
+    }
+
+    /**
+     * Deletes matching trips in chunks of {@value #DELETE_CHUNK_SIZE}, each in its own short transaction,
+     * so row locks are released between chunks. A chunk costs one select of ids, one fetch-joined select
+     * of the deleted trips and two set-based deletes.
+     */
+    public List<TravelDTO> deleteTrips(DeleteRequest deleteRequest) {
+        List<TravelDTO> deleted = new ArrayList<>();
+        Long departure = cityId(deleteRequest.getDeparture());
+        Long destination = cityId(deleteRequest.getDestination());
+        if (departure == null && destination == null) {
+            return deleted;
+        }
+
+        long after = 0L;
+        while (true) {
+            long from = after;
+            List<Long> ids = transactionTemplate.execute(status -> deleteChunk(departure, destination, from, deleted));
+            if (ids == null || ids.size() < DELETE_CHUNK_SIZE) {
+                return deleted;
+            }
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    private Long cityId(String name) {
+        return name == null ? null : cityRegistry.find(name).map(Cities::getId).orElse(null);
+    }
+
+    private List<Long> deleteChunk(Long departure, Long destination, long after, List<TravelDTO> deleted) {
+        List<Long> ids = travelRepository.findIdsByDepartureOrDestination(after, departure, destination,
+                Limit.of(DELETE_CHUNK_SIZE));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        List<Travel> travels = travelRepository.findAllWithServicesByIdIn(ids);
+        travels.stream()
+                .map(Mapper::mapToTravelDTO)
+                .forEach(deleted::add);
+        release(travels);
+        travelRepository.deleteServicesByTravelIdIn(ids);
+        travelRepository.deleteAllByIdInBatch(ids);
+        return ids;
     }
 
     @Transactional
     public ServicesDTO addService(AddServiceRequest addServiceRequest) {
-        Cities city = citiesRepository.findCitiesByName(addServiceRequest.getCity())
-                .orElseGet(() -> citiesRepository.save(Cities.builder().name(addServiceRequest.getCity()).build()));
+        Cities city = cityRegistry.find(addServiceRequest.getCity())
+                .orElseGet(() -> {
+                    Cities saved = citiesRepository.save(Cities.builder().name(addServiceRequest.getCity()).build());
+                    cityRegistry.register(saved);
+                    searchIndex.register(saved);
+                    return saved;
+                });
 
         if (servicesRepository.findByNameAndCity(addServiceRequest.getName(), city).isPresent()) {
             throw new ServicesException("The service already exists");
         }
         Services service = servicesRepository.save(Services.builder().name(addServiceRequest.getName())
                 .city(city).build());
+        servicesCatalogCache.evict(city.getName());
+        searchIndex.register(service);
 
         return Mapper.mapToServicesDTO(service);
     }
+
+    /**
+     * Sets how many travelers can book the service on the date. Places booked before stay booked, so the
+     * capacity cannot be lower than their number.
+     */
+    public CapacityDTO setCapacity(CapacityRequest capacityRequest) {
+        // every read sees what was committed before the service row was locked, not what was there at the start
+        TransactionTemplate readCommitted = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readCommitted.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        try {
+            return readCommitted.execute(status -> applyCapacity(capacityRequest));
+        } catch (DataIntegrityViolationException e) {
+            if (!UniqueConstraints.isSoleUniqueKeyViolated(e, ServiceCapacity.DATE_UNIQUE_CONSTRAINT)) {
+                throw e;
+            }
+            // the unique key is the last guard, a call that still lost the race to create the row resizes it
+            return readCommitted.execute(status -> applyCapacity(capacityRequest));
+        }
+    }
+
+    public List<SearchResultDTO> search(String query, SearchResultDTO.Type type, int limit) {
+        if (limit < 1 || limit > SearchIndex.MAX_RESULTS) {
+            throw new ServicesException("The number of results must be between 1 and " + SearchIndex.MAX_RESULTS);
+        }
+        return searchIndex.search(query, type, limit);
+    }
+
+    // bookings insert under a foreign key to the service row, so locking it waits for the bookings in flight and
+    // holds new ones until the capacity is in place, concurrent calls for the service run one after another
+    private CapacityDTO applyCapacity(CapacityRequest capacityRequest) {
+        Services service = cityRegistry.find(capacityRequest.getCity())
+                .flatMap(city -> servicesRepository.findByNameAndCity(capacityRequest.getName(), city))
+                .orElseThrow(() -> new ServicesException("There is no service with that name"));
+        LocalDate date = capacityRequest.getDate();
+        int capacity = capacityRequest.getCapacity();
+        servicesRepository.lockById(service.getId());
+
+        if (capacityRepository.findByServiceAndDate(service, date).isPresent()) {
+            if (capacityRepository.resize(service.getId(), date, capacity) == 0) {
+                throw new ServicesException("The capacity is lower than the number of bookings on that date");
+            }
+        } else {
+            int bookings = capacityRepository.countBookings(service.getId(), date);
+            if (bookings > capacity) {
+                throw new ServicesException("The capacity is lower than the number of bookings on that date");
+            }
+            capacityRepository.saveAndFlush(ServiceCapacity.builder()
+                    .service(service).date(date).capacity(capacity).remaining(capacity - bookings).build());
+        }
+
+        return capacityRepository.findByServiceAndDate(service, date)
+                .map(Mapper::mapToCapacityDTO)
+                .orElseThrow();
+    }
+
+    // nothing is updated for a service without a limit on that date, so only then the extra check runs
+    private void reserve(Long serviceId, LocalDate date) {
+        if (capacityRepository.reserve(serviceId, date) == 0
+                && capacityRepository.existsByServiceIdAndDate(serviceId, date)) {
+            throw new ServicesException("The service is fully booked on that date");
+        }
+    }
+
+    // fully booked services lose their new booking and are reported instead of failing the whole batch
+    private void reserveAll(Travel travel, List<Long> serviceIds, List<BookingResultDTO> results) {
+        LocalDate date = travel.getTravel_time().toLocalDate();
+        int[] reserved = capacityRepository.reserveAll(serviceIds, date);
+        List<Long> unreserved = new ArrayList<>();
+        for (int i = 0; i < reserved.length; i++) {
+            if (reserved[i] == 0) {
+                unreserved.add(serviceIds.get(i));
+            }
+        }
+        if (unreserved.isEmpty()) {
+            return;
+        }
+
+        Set<Long> full = new HashSet<>(capacityRepository.findServiceIdsByDate(unreserved, date));
+        if (full.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < reserved.length; i++) {
+            if (reserved[i] == 0 && full.contains(serviceIds.get(i))) {
+                results.get(i).setStatus(BookingResultDTO.Status.FULLY_BOOKED);
+                results.get(i).setError("The service is fully booked on that date");
+            }
+        }
+        travelRepository.deleteServices(travel.getId(), full);
+    }
+
+    // every booking of the travels gives its place back, one batch per travel date
+    private void release(List<Travel> travels) {
+        Map<LocalDate, Map<Long, Integer>> places = new HashMap<>();
+        for (Travel travel : travels) {
+            if (travel.getServices() == null || travel.getTravel_time() == null) {
+                continue;
+            }
+            for (Services service : travel.getServices()) {
+                places.computeIfAbsent(travel.getTravel_time().toLocalDate(), date -> new HashMap<>())
+                        .merge(service.getId(), 1, Integer::sum);
+            }
+        }
+        places.forEach(capacityRepository::releaseAll);
+    }
+
+    private static BookingResultDTO bookingResult(String name, BookingResultDTO.Status status, String error) {
+        return BookingResultDTO.builder().name(name).status(status).error(error).build();
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,42 @@
+package com.travel.planning.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Tells which unique constraint a failed insert broke, so a lost check-then-insert race can be reported
+ * like the check itself.
+ */
+final class UniqueConstraints {
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+
+    private UniqueConstraints() {
+    }
+
+    static boolean isViolated(DataIntegrityViolationException e, String constraintName) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraintName);
+    }
+
+    /**
+     * For a flush that inserts rows with no unique key but {@code constraintName}, ids come from sequences:
+     * a duplicate key error the driver reported without the constraint name can only be that one as well.
+     */
+    static boolean isSoleUniqueKeyViolated(DataIntegrityViolationException e, String constraintName) {
+        if (isViolated(e, constraintName)) {
+            return true;
+        }
+        if (e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() == null) {
+            SQLException sqlException = violation.getSQLException();
+            return sqlException != null && (sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY
+                    || UNIQUE_VIOLATION_STATE.equals(sqlException.getSQLState()));
+        }
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.travel.planning.service;
 
+import com.travel.planning.configuration.security.CredentialsCache;
 import com.travel.planning.configuration.security.Role;
 import com.travel.planning.configuration.security.UserAdapter;
 import com.travel.planning.dto.request.RegistrationRequest;
@@ -23,6 +24,7 @@ import java.util.Arrays;
 public class UserDetailsServiceImp implements UserDetailsService {
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final CredentialsCache credentialsCache;
 
     public ResponseEntity<String> register(RegistrationRequest registrationRequest) {
         if (userRepository.findUserByEmail(registrationRequest.getEmail()).isPresent()) {
@@ -42,6 +44,7 @@ public class UserDetailsServiceImp implements UserDetailsService {
                 .role(role)
                 .build();
         userRepository.save(user);
+        credentialsCache.evict(user.getEmail());
 
         return new ResponseEntity<>("Welcome! Your email is your username", HttpStatus.CREATED);
     }
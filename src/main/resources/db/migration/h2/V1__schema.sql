@@ -0,0 +1,84 @@
+-- The embedded database is always created empty, so it starts from the current schema instead of the MySQL upgrades.
+-- Ids below 1000 are reserved for the seed data, the increment matches the pooled allocation size.
+-- City and service names compare case-insensitively, as under MySQL's default collation.
+-- Unique keys are unique indexes, as on MySQL, so a violation reports the key's name instead of a generated one.
+CREATE SEQUENCE cities_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE connections_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE service_capacity_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE services_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE travel_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE user_seq START WITH 1000 INCREMENT BY 50;
+
+CREATE TABLE cities (
+    id BIGINT NOT NULL,
+    name VARCHAR_IGNORECASE(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE UNIQUE INDEX uk_cities_name ON cities (name);
+
+CREATE TABLE user (
+    user_id BIGINT NOT NULL,
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role TINYINT,
+    PRIMARY KEY (user_id)
+);
+CREATE INDEX idx_user_email ON user (email);
+
+CREATE TABLE services (
+    id BIGINT NOT NULL,
+    city_id BIGINT,
+    name VARCHAR_IGNORECASE(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_services_city FOREIGN KEY (city_id) REFERENCES cities (id)
+);
+CREATE INDEX idx_services_city_name ON services (city_id, name);
+CREATE INDEX idx_services_name ON services (name);
+
+CREATE TABLE travel (
+    id BIGINT NOT NULL,
+    departure_id BIGINT,
+    destination_id BIGINT,
+    travel_time TIMESTAMP(6),
+    user_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_travel_departure FOREIGN KEY (departure_id) REFERENCES cities (id),
+    CONSTRAINT fk_travel_destination FOREIGN KEY (destination_id) REFERENCES cities (id),
+    CONSTRAINT fk_travel_user FOREIGN KEY (user_id) REFERENCES user (user_id)
+);
+CREATE UNIQUE INDEX uk_travel_user ON travel (user_id);
+CREATE INDEX idx_travel_departure ON travel (departure_id);
+CREATE INDEX idx_travel_destination ON travel (destination_id);
+
+CREATE TABLE travel_services (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    service_id BIGINT NOT NULL,
+    travel_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_travel_services_service FOREIGN KEY (service_id) REFERENCES services (id),
+    CONSTRAINT fk_travel_services_travel FOREIGN KEY (travel_id) REFERENCES travel (id)
+);
+CREATE UNIQUE INDEX uk_travel_service ON travel_services (travel_id, service_id);
+
+CREATE TABLE connections (
+    id BIGINT NOT NULL,
+    departure_id BIGINT NOT NULL,
+    destination_id BIGINT NOT NULL,
+    duration INTEGER NOT NULL,
+    cost INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_connection_departure FOREIGN KEY (departure_id) REFERENCES cities (id),
+    CONSTRAINT fk_connection_destination FOREIGN KEY (destination_id) REFERENCES cities (id)
+);
+CREATE UNIQUE INDEX uk_connection_route ON connections (departure_id, destination_id);
+
+CREATE TABLE service_capacity (
+    id BIGINT NOT NULL,
+    service_id BIGINT NOT NULL,
+    service_date DATE NOT NULL,
+    capacity INTEGER NOT NULL,
+    remaining INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_capacity_service FOREIGN KEY (service_id) REFERENCES services (id)
+);
+CREATE UNIQUE INDEX uk_capacity_service_date ON service_capacity (service_id, service_date);
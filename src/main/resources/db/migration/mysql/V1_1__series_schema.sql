@@ -0,0 +1,80 @@
+-- Tables and constraints the entities gained since the baseline, except for the city ids (V1_2).
+-- Names Hibernate gave by hash are looked up, so the statements do not depend on how the baseline was created.
+
+-- Sequences are emulated by tables, ids below 1000 are reserved for the seed data. An emulated sequence hands
+-- out the 50 ids below its value, so it starts 50 past the ids already in use.
+CREATE TABLE cities_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO cities_seq SELECT GREATEST(1000, COALESCE(MAX(id), 0) + 50) FROM cities;
+CREATE TABLE connections_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO connections_seq VALUES (1000);
+CREATE TABLE service_capacity_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO service_capacity_seq VALUES (1000);
+CREATE TABLE services_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO services_seq SELECT GREATEST(1000, COALESCE(MAX(id), 0) + 50) FROM services;
+CREATE TABLE travel_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO travel_seq SELECT GREATEST(1000, COALESCE(MAX(id), 0) + 50) FROM travel;
+CREATE TABLE user_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO user_seq SELECT GREATEST(1000, COALESCE(MAX(user_id), 0) + 50) FROM user;
+
+SET @ddl = (SELECT CONCAT('ALTER TABLE cities RENAME INDEX ', index_name, ' TO uk_cities_name')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'cities' AND column_name = 'name' AND non_unique = 0);
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT CONCAT('ALTER TABLE travel RENAME INDEX ', index_name, ' TO uk_travel_user')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'travel' AND column_name = 'user_id' AND non_unique = 0);
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT CONCAT('ALTER TABLE travel DROP FOREIGN KEY ', constraint_name,
+                          ', ADD CONSTRAINT fk_travel_user FOREIGN KEY (user_id) REFERENCES user (user_id)')
+            FROM information_schema.key_column_usage
+            WHERE table_schema = DATABASE() AND table_name = 'travel' AND column_name = 'user_id'
+              AND referenced_table_name = 'user');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+-- a service booked twice before bookings were unique keeps its first booking
+DELETE later FROM travel_services later
+    JOIN travel_services first
+        ON first.travel_id = later.travel_id AND first.service_id = later.service_id AND first.id < later.id;
+
+SET @ddl = (SELECT CONCAT('ALTER TABLE travel_services ',
+                          GROUP_CONCAT('DROP FOREIGN KEY ', constraint_name SEPARATOR ', '),
+                          ', ADD CONSTRAINT uk_travel_service UNIQUE (travel_id, service_id)',
+                          ', ADD CONSTRAINT fk_travel_services_service FOREIGN KEY (service_id) REFERENCES services (id)',
+                          ', ADD CONSTRAINT fk_travel_services_travel FOREIGN KEY (travel_id) REFERENCES travel (id)')
+            FROM information_schema.key_column_usage
+            WHERE table_schema = DATABASE() AND table_name = 'travel_services'
+              AND referenced_table_name IS NOT NULL);
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+CREATE TABLE connections (
+    id BIGINT NOT NULL,
+    departure_id BIGINT NOT NULL,
+    destination_id BIGINT NOT NULL,
+    duration INTEGER NOT NULL,
+    cost INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_connection_route UNIQUE (departure_id, destination_id),
+    CONSTRAINT fk_connection_departure FOREIGN KEY (departure_id) REFERENCES cities (id),
+    CONSTRAINT fk_connection_destination FOREIGN KEY (destination_id) REFERENCES cities (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE service_capacity (
+    id BIGINT NOT NULL,
+    service_id BIGINT NOT NULL,
+    service_date DATE NOT NULL,
+    capacity INTEGER NOT NULL,
+    remaining INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_capacity_service_date UNIQUE (service_id, service_date),
+    CONSTRAINT fk_capacity_service FOREIGN KEY (service_id) REFERENCES services (id)
+) ENGINE = InnoDB;
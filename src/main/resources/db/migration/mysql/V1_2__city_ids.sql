@@ -0,0 +1,35 @@
+-- Moves travel and services from city names to city ids.
+-- The foreign keys on the name columns are looked up, their names depend on how the schema was created.
+
+SET @ddl = (SELECT CONCAT('ALTER TABLE travel ', GROUP_CONCAT('DROP FOREIGN KEY ', constraint_name SEPARATOR ', '),
+                          ', ADD COLUMN departure_id BIGINT, ADD COLUMN destination_id BIGINT')
+            FROM information_schema.key_column_usage
+            WHERE table_schema = DATABASE() AND table_name = 'travel' AND column_name IN ('departure', 'destination')
+              AND referenced_table_name = 'cities');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+UPDATE travel t
+    LEFT JOIN cities d ON d.name = t.departure
+    LEFT JOIN cities a ON a.name = t.destination
+SET t.departure_id = d.id, t.destination_id = a.id;
+ALTER TABLE travel
+    DROP COLUMN departure,
+    DROP COLUMN destination,
+    ADD CONSTRAINT fk_travel_departure FOREIGN KEY (departure_id) REFERENCES cities (id),
+    ADD CONSTRAINT fk_travel_destination FOREIGN KEY (destination_id) REFERENCES cities (id);
+
+SET @ddl = (SELECT CONCAT('ALTER TABLE services ', GROUP_CONCAT('DROP FOREIGN KEY ', constraint_name SEPARATOR ', '),
+                          ', ADD COLUMN city_id BIGINT')
+            FROM information_schema.key_column_usage
+            WHERE table_schema = DATABASE() AND table_name = 'services' AND column_name = 'city'
+              AND referenced_table_name = 'cities');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+UPDATE services s
+    LEFT JOIN cities c ON c.name = s.city
+SET s.city_id = c.id;
+ALTER TABLE services
+    DROP COLUMN city,
+    ADD CONSTRAINT fk_services_city FOREIGN KEY (city_id) REFERENCES cities (id);
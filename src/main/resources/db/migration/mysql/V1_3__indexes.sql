@@ -0,0 +1,8 @@
+-- Indexes declared on the entities for the repository finders.
+-- Where one of them can back a foreign key, MySQL drops the index it had created for that key.
+
+CREATE INDEX idx_services_city_name ON services (city_id, name);
+CREATE INDEX idx_services_name ON services (name);
+CREATE INDEX idx_travel_departure ON travel (departure_id);
+CREATE INDEX idx_travel_destination ON travel (destination_id);
+CREATE INDEX idx_user_email ON user (email);
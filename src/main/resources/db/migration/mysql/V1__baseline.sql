@@ -0,0 +1,47 @@
+-- The schema as Hibernate created it (ddl-auto) before there were migrations, constraint names included.
+-- A database from that time already is at this version: it is baselined once, with
+-- spring.flyway.baseline-on-migrate = true on its first start, and the migrations after this one upgrade it.
+CREATE TABLE cities (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_l61tawv0e2a93es77jkyvi7qa UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE user (
+    user_id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role TINYINT,
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE services (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    city VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT FKbr5ril7podskqvvakb0hwy2g3 FOREIGN KEY (city) REFERENCES cities (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE travel (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    travel_time DATETIME(6),
+    departure VARCHAR(255),
+    destination VARCHAR(255),
+    user_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_mnu8phiteeyotooyltveato7h UNIQUE (user_id),
+    CONSTRAINT FK3g5y4v2l8pvwecaxxoqc9khi3 FOREIGN KEY (user_id) REFERENCES user (user_id),
+    CONSTRAINT FKckp0wekvefy045d6psg6iqs71 FOREIGN KEY (destination) REFERENCES cities (name),
+    CONSTRAINT FKkg9svqm79iuoy83f0qnk88m83 FOREIGN KEY (departure) REFERENCES cities (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE travel_services (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    travel_id BIGINT NOT NULL,
+    service_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FKadbn9o9ithnrsx1e4rh9c0gq1 FOREIGN KEY (travel_id) REFERENCES travel (id),
+    CONSTRAINT FKhwtapver8dcos1qxcvyudgnc7 FOREIGN KEY (service_id) REFERENCES services (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,37 @@
+-- Demo data, inserted once by the migration and skipped row by row when it already exists,
+-- e.g. in a database baselined from an older version that loaded the same rows on startup.
+-- Rows are matched by their natural keys and references are looked up by name, so a database whose ids
+-- already belong to other rows keeps them and only gets the demo rows that fit.
+INSERT IGNORE INTO user(user_id, email, password, role)
+SELECT 1, 'misha@gmail.com', '$2a$10$Hzdg8upvCxY8wqZAyq79Ou1szV6sS6Xy55GmDyOqgz8ZKbMsklZ1C', 1
+WHERE NOT EXISTS (SELECT 1 FROM user WHERE email = 'misha@gmail.com');
+
+-- uk_cities_name skips a city that exists under another id
+INSERT IGNORE INTO cities(id, name) VALUES (1, 'Kiev'), (2, 'Warsaw'), (3, 'Berlin'), (4, 'Paris'), (5, 'Barcelona'),
+    (6, 'Rome'), (7, 'Vienna');
+
+INSERT IGNORE INTO services(id, city_id, name)
+SELECT 1, c.id, 'Hotel' FROM cities c
+WHERE c.name = 'Kiev' AND NOT EXISTS (SELECT 1 FROM services s WHERE s.city_id = c.id AND s.name = 'Hotel');
+
+-- uk_connection_route skips a route that already exists
+INSERT IGNORE INTO connections(id, departure_id, destination_id, duration, cost)
+SELECT r.id, d.id, a.id, r.duration, r.cost
+FROM (SELECT 1 AS id, 'Kiev' AS departure, 'Warsaw' AS destination, 540 AS duration, 45 AS cost
+      UNION ALL SELECT 2, 'Warsaw', 'Kiev', 540, 45
+      UNION ALL SELECT 3, 'Warsaw', 'Berlin', 330, 40
+      UNION ALL SELECT 4, 'Berlin', 'Warsaw', 330, 40
+      UNION ALL SELECT 5, 'Berlin', 'Paris', 480, 90
+      UNION ALL SELECT 6, 'Paris', 'Berlin', 480, 90
+      UNION ALL SELECT 7, 'Berlin', 'Vienna', 510, 60
+      UNION ALL SELECT 8, 'Vienna', 'Berlin', 510, 60
+      UNION ALL SELECT 9, 'Vienna', 'Rome', 690, 80
+      UNION ALL SELECT 10, 'Rome', 'Vienna', 690, 80
+      UNION ALL SELECT 11, 'Paris', 'Barcelona', 400, 110
+      UNION ALL SELECT 12, 'Barcelona', 'Paris', 400, 110
+      UNION ALL SELECT 13, 'Rome', 'Barcelona', 1200, 70
+      UNION ALL SELECT 14, 'Barcelona', 'Rome', 1200, 70
+      UNION ALL SELECT 15, 'Kiev', 'Vienna', 1080, 75
+      UNION ALL SELECT 16, 'Vienna', 'Kiev', 1080, 75) r
+    JOIN cities d ON d.name = r.departure
+    JOIN cities a ON a.name = r.destination;
@@ -0,0 +1,131 @@
+package com.travel.planning;
+
+import com.travel.planning.dto.response.ImportResultDTO;
+import com.travel.planning.dto.response.ImportResultDTO.Status;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Services;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServicesRepository;
+import com.travel.planning.service.CatalogImportService;
+import com.travel.planning.service.CityRegistry;
+import com.travel.planning.service.SearchIndex;
+import com.travel.planning.service.ServicesCatalogCache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogImportServiceTest {
+    @Mock
+    CitiesRepository citiesRepository;
+    @Mock
+    ServicesRepository servicesRepository;
+    @Mock
+    EntityManager entityManager;
+
+    CatalogImportService catalogImportService;
+
+    @BeforeEach
+    void setUp() {
+        catalogImportService = new CatalogImportService(citiesRepository, servicesRepository,
+                new CityRegistry(citiesRepository), new ServicesCatalogCache(16),
+                new SearchIndex(citiesRepository, servicesRepository), entityManager, new ObjectMapper());
+    }
+
+    @Test
+    void testImportCsv() {
+        var kiev = Cities.builder().id(1L).name("Kiev").build();
+        var csv = """
+                city,service
+                Kiev,Hotel
+                kiev,Park
+                Kiev,park
+                Oslo,Museum
+                Oslo
+                """;
+
+        when(citiesRepository.findAllByNameIn(List.of("Kiev", "Oslo")))
+                .thenReturn(List.of(kiev));
+        when(citiesRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(servicesRepository.findAllByCityInAndNameIn(any(), eq(Set.of("Hotel", "Park", "Museum"))))
+                .thenReturn(List.of(Services.builder().name("Hotel").city(kiev).build()));
+
+        List<ImportResultDTO> actual = catalogImportService.importServices(
+                new BufferedReader(new StringReader(csv)), CatalogImportService.Format.CSV);
+
+        assertThat(actual)
+                .extracting(ImportResultDTO::getLine, ImportResultDTO::getStatus)
+                .containsExactly(tuple(2, Status.EXISTS), tuple(3, Status.CREATED), tuple(4, Status.DUPLICATE),
+                        tuple(5, Status.CREATED), tuple(6, Status.INVALID));
+        verify(citiesRepository).saveAll(List.of(Cities.builder().name("Oslo").build()));
+        verify(servicesRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testImportJsonLines() {
+        var kiev = Cities.builder().id(1L).name("Kiev").build();
+        var lines = """
+                {"name":"Hotel","city":"Kiev"}
+                {"name":"Hotel"
+                {"city":"Kiev"}
+                """;
+
+        when(citiesRepository.findAllByNameIn(List.of("Kiev")))
+                .thenReturn(List.of(kiev));
+
+        List<ImportResultDTO> actual = catalogImportService.importServices(
+                new BufferedReader(new StringReader(lines)), CatalogImportService.Format.JSON_LINES);
+
+        assertThat(actual)
+                .extracting(ImportResultDTO::getStatus, ImportResultDTO::getError)
+                .containsExactly(tuple(Status.CREATED, null), tuple(Status.INVALID, "Malformed JSON"),
+                        tuple(Status.INVALID, "Write down the name of service!"));
+    }
+
+    @Test
+    void testImportCsv_Chunked() {
+        var kiev = Cities.builder().id(1L).name("Kiev").build();
+        var csv = new StringBuilder();
+        for (int i = 0; i <= CatalogImportService.CHUNK_SIZE; i++) {
+            csv.append("Kiev,Service ").append(i).append('\n');
+        }
+
+        when(citiesRepository.findAllByNameIn(List.of("Kiev")))
+                .thenReturn(List.of(kiev));
+
+        List<ImportResultDTO> actual = catalogImportService.importServices(
+                new BufferedReader(new StringReader(csv.toString())), CatalogImportService.Format.CSV);
+
+        assertThat(actual)
+                .hasSize(CatalogImportService.CHUNK_SIZE + 1)
+                .allMatch(row -> row.getStatus() == Status.CREATED);
+        verify(citiesRepository, times(1)).findAllByNameIn(any());
+        verify(servicesRepository, times(2)).findAllByCityInAndNameIn(any(), any());
+        verify(servicesRepository, times(2)).saveAll(anyList());
+        verify(entityManager, times(2)).clear();
+    }
+
+    private static org.assertj.core.groups.Tuple tuple(Object... values) {
+        return org.assertj.core.groups.Tuple.tuple(values);
+    }
+}
@@ -0,0 +1,128 @@
+package com.travel.planning;
+
+import com.travel.planning.configuration.security.CachingAuthenticationProvider;
+import com.travel.planning.configuration.security.CredentialsCache;
+import com.travel.planning.configuration.security.Role;
+import com.travel.planning.configuration.security.UserAdapter;
+import com.travel.planning.model.User;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class CredentialsCacheTest {
+    final UserAdapter userAdapter = new UserAdapter(User.builder()
+            .user_id(1L)
+            .email("misha@gmail.com")
+            .password("hash")
+            .role(Role.TRAVELER)
+            .build());
+
+    @Test
+    void testCache_HitAndMiss() {
+        var cache = new CredentialsCache(10, Duration.ofMinutes(5));
+        var key = CredentialsCache.key("misha@gmail.com", "1234");
+
+        assertThat(cache.get(key)).isNull();
+        cache.put(key, userAdapter);
+
+        assertThat(cache.get(key)).isEqualTo(userAdapter);
+        assertThat(cache.get(CredentialsCache.key("misha@gmail.com", "4321"))).isNull();
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void testCache_StoredWithoutPassword() {
+        var cache = new CredentialsCache(10, Duration.ofMinutes(5));
+        var key = CredentialsCache.key("misha@gmail.com", "1234");
+
+        cache.put(key, userAdapter);
+
+        assertThat(cache.get(key).getPassword()).isNull();
+        assertThat(cache.get(key).getUser().getUser_id()).isEqualTo(1L);
+        assertThat(cache.get(key).getAuthorities()).isEqualTo(userAdapter.getAuthorities());
+        assertThat(userAdapter.getPassword()).isEqualTo("hash");
+    }
+
+    @Test
+    void testCache_Expired() {
+        var clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L, Duration.ofMinutes(6).toMillis());
+        var cache = new CredentialsCache(10, Duration.ofMinutes(5), clock);
+        var key = CredentialsCache.key("misha@gmail.com", "1234");
+
+        cache.put(key, userAdapter);
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testCache_Bounded() {
+        var cache = new CredentialsCache(2, Duration.ofMinutes(5),
+                Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+        cache.put("a", userAdapter);
+        cache.put("b", userAdapter);
+        cache.put("c", userAdapter);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void testCache_Evict() {
+        var cache = new CredentialsCache(10, Duration.ofMinutes(5));
+        cache.put(CredentialsCache.key("misha@gmail.com", "1234"), userAdapter);
+
+        cache.evict("misha@gmail.com");
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testProvider_SkipsPasswordCheckOnHit() {
+        var userDetailsService = mock(UserDetailsService.class);
+        var passwordEncoder = mock(PasswordEncoder.class);
+        var provider = new CachingAuthenticationProvider(userDetailsService, passwordEncoder,
+                new CredentialsCache(10, Duration.ofMinutes(5)));
+
+        when(userDetailsService.loadUserByUsername("misha@gmail.com")).thenReturn(userAdapter);
+        when(passwordEncoder.matches("1234", "hash")).thenReturn(true);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("misha@gmail.com", "1234"));
+        var result = provider.authenticate(new UsernamePasswordAuthenticationToken("misha@gmail.com", "1234"));
+
+        assertThat(result.getPrincipal()).isEqualTo(userAdapter);
+        verify(userDetailsService, times(1)).loadUserByUsername("misha@gmail.com");
+        verify(passwordEncoder, times(1)).matches("1234", "hash");
+    }
+
+    @Test
+    void testProvider_WrongPasswordNotCached() {
+        var userDetailsService = mock(UserDetailsService.class);
+        var passwordEncoder = mock(PasswordEncoder.class);
+        var cache = new CredentialsCache(10, Duration.ofMinutes(5));
+        var provider = new CachingAuthenticationProvider(userDetailsService, passwordEncoder, cache);
+
+        when(userDetailsService.loadUserByUsername("misha@gmail.com")).thenReturn(userAdapter);
+
+        assertThatThrownBy(() -> provider.authenticate(
+                new UsernamePasswordAuthenticationToken("misha@gmail.com", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,98 @@
+package com.travel.planning;
+
+import com.travel.planning.configuration.DatabaseConcurrencyFilter;
+
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DatabaseConcurrencyFilterTest {
+    @Test
+    void testFilter_PassesAndReleases() throws Exception {
+        var filter = new DatabaseConcurrencyFilter(1, Duration.ZERO);
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/travel/all"), response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(filter.getAvailablePermits()).isEqualTo(1);
+        assertThat(filter.getRejected()).isZero();
+    }
+
+    @Test
+    void testFilter_RejectsWhenBusy() throws Exception {
+        var filter = new DatabaseConcurrencyFilter(1, Duration.ofMillis(10));
+        var rejected = new AtomicReference<MockHttpServletResponse>();
+        var inner = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                var response = new MockHttpServletResponse();
+                try {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/services"), response, new MockFilterChain());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                rejected.set(response);
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/travel/all"), new MockHttpServletResponse(), inner);
+
+        assertThat(rejected.get().getStatus()).isEqualTo(503);
+        assertThat(rejected.get().getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.get().getContentAsString()).contains("The service is busy, try again later");
+        assertThat(filter.getRejected()).isEqualTo(1);
+        assertThat(filter.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void testFilter_AsyncHoldsUntilComplete() throws Exception {
+        var filter = new DatabaseConcurrencyFilter(1, Duration.ZERO);
+        var request = new MockHttpServletRequest("GET", "/travel/stream");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(filter.getAvailablePermits()).isZero();
+        var busy = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/search"), busy, new MockFilterChain());
+        assertThat(busy.getStatus()).isEqualTo(503);
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        assertThat(filter.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void testFilter_AsyncErrorReleasesOnce() throws Exception {
+        var filter = new DatabaseConcurrencyFilter(1, Duration.ZERO);
+        var request = new MockHttpServletRequest("GET", "/travel/stream");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        var context = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : context.getListeners()) {
+            listener.onError(new AsyncEvent(context, new IOException("Broken pipe")));
+        }
+        context.complete();
+
+        assertThat(filter.getAvailablePermits()).isEqualTo(1);
+    }
+}
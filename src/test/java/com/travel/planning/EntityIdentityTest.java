@@ -0,0 +1,65 @@
+package com.travel.planning;
+
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Services;
+import com.travel.planning.model.Travel;
+import com.travel.planning.model.User;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class EntityIdentityTest {
+    final Cities kiev = Cities.builder().id(1L).name("Kiev").build();
+
+    @Test
+    void testEquals_ById() {
+        var travel = Travel.builder().id(1L).departure(kiev).services(Set.of()).build();
+
+        assertThat(travel).isEqualTo(Travel.builder().id(1L).build())
+                .hasSameHashCodeAs(Travel.builder().id(1L).build())
+                .isNotEqualTo(Travel.builder().id(2L).departure(kiev).services(Set.of()).build());
+        assertThat(Services.builder().id(1L).name("Hotel").build())
+                .isEqualTo(Services.builder().id(1L).name("Park").build())
+                .isNotEqualTo(Travel.builder().id(1L).build());
+    }
+
+    @Test
+    void testEquals_New() {
+        var first = Services.builder().name("Hotel").city(kiev).build();
+        var second = Services.builder().name("Hotel").city(kiev).build();
+
+        assertThat(first).isEqualTo(first).isNotEqualTo(second);
+        assertThat(new HashSet<>(List.of(first, second))).hasSize(2);
+    }
+
+    @Test
+    void testEquals_ByNaturalKey() {
+        assertThat(Cities.builder().name("Kiev").build()).isEqualTo(kiev).hasSameHashCodeAs(kiev);
+        assertThat(User.builder().user_id(1L).email("misha@gmail.com").password("1").build())
+                .isEqualTo(User.builder().email("misha@gmail.com").password("2").build());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIdentity_DoesNotWalkAssociations() {
+        Set<Services> services = mock(Set.class);
+        List<Travel> travels = mock(List.class);
+        User user = mock(User.class);
+        var travel = Travel.builder().id(1L).departure(kiev).destination(kiev).user(user).services(services).build();
+        var service = Services.builder().id(1L).name("Hotel").city(kiev).travels(travels).build();
+
+        new HashSet<>(List.of(travel, service)).contains(Travel.builder().id(1L).services(new HashSet<>()).build());
+        assertThat(travel.toString()).doesNotContain("services", "user", "departure");
+        assertThat(service.toString()).doesNotContain("travels", "city");
+        assertThat(new ArrayList<>(List.of(travel))).containsExactly(Travel.builder().id(1L).build());
+
+        verifyNoInteractions(services, travels, user);
+    }
+}
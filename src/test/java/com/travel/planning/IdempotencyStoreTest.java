@@ -0,0 +1,162 @@
+package com.travel.planning;
+
+import com.travel.planning.exception.IdempotencyException;
+import com.travel.planning.exception.TravelException;
+import com.travel.planning.service.IdempotencyStore;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IdempotencyStoreTest {
+    final IdempotencyStore store = new IdempotencyStore(10, Duration.ofHours(24));
+    final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void testExecute_Replayed() {
+        assertThat(store.execute("misha@gmail.com", "key", "Hotel", runs::incrementAndGet)).isEqualTo(1);
+        assertThat(store.execute("misha@gmail.com", "key", "Hotel", runs::incrementAndGet)).isEqualTo(1);
+        assertThat(store.execute("other@gmail.com", "key", "Hotel", runs::incrementAndGet)).isEqualTo(2);
+        assertThat(store.execute("misha@gmail.com", null, "Hotel", runs::incrementAndGet)).isEqualTo(3);
+        assertThat(store.getReplays()).isEqualTo(1);
+    }
+
+    @Test
+    void testExecute_OtherRequest() {
+        store.execute("misha@gmail.com", "key", "Hotel", runs::incrementAndGet);
+
+        assertThatThrownBy(() -> store.execute("misha@gmail.com", "key", "Park", runs::incrementAndGet))
+                .isInstanceOf(IdempotencyException.class)
+                .hasMessage("The Idempotency-Key was already used for another request");
+        assertThatThrownBy(() -> store.execute("misha@gmail.com", "k".repeat(256), "Park", runs::incrementAndGet))
+                .isInstanceOf(IdempotencyException.class);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void testExecute_BusinessErrorReplayed() {
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> store.execute("misha@gmail.com", "key", "Hotel", () -> {
+                runs.incrementAndGet();
+                throw new TravelException("You have already planned your travel");
+            }))
+                    .isInstanceOf(TravelException.class)
+                    .hasMessage("You have already planned your travel");
+        }
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void testExecute_UnexpectedErrorRetried() {
+        assertThatThrownBy(() -> store.execute("misha@gmail.com", "key", "Hotel", () -> {
+            throw new IllegalStateException("Connection lost");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(store.execute("misha@gmail.com", "key", "Hotel", runs::incrementAndGet)).isEqualTo(1);
+    }
+
+    @Test
+    void testExecute_Expired() {
+        var now = new AtomicLong();
+        var clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(invocation -> now.get());
+        var expiring = new IdempotencyStore(10, Duration.ofHours(24), clock);
+
+        assertThat(expiring.execute("misha@gmail.com", "key", "Hotel", runs::incrementAndGet)).isEqualTo(1);
+        now.set(Duration.ofHours(25).toMillis());
+        assertThat(expiring.execute("misha@gmail.com", "key", "Hotel", runs::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void testExecute_ExpiredRemovedUntouched() {
+        var now = new AtomicLong();
+        var clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(invocation -> now.get());
+        var expiring = new IdempotencyStore(10, Duration.ofHours(24), clock);
+        for (int i = 0; i < 5; i++) {
+            expiring.execute("misha@gmail.com", "key-" + i, "Hotel", runs::incrementAndGet);
+        }
+
+        now.set(Duration.ofHours(25).toMillis());
+        expiring.execute("misha@gmail.com", "other", "Hotel", runs::incrementAndGet);
+
+        assertThat(expiring.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testExecute_Bounded() {
+        var small = new IdempotencyStore(2, Duration.ofHours(24));
+        for (int i = 0; i < 5; i++) {
+            small.execute("misha@gmail.com", "key-" + i, "Hotel", runs::incrementAndGet);
+        }
+
+        assertThat(small.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testExecute_BoundedKeepsRunning() throws Exception {
+        var small = new IdempotencyStore(2, Duration.ofHours(24));
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var running = CompletableFuture.supplyAsync(() -> small.execute("misha@gmail.com", "running", "Hotel", () -> {
+            started.countDown();
+            await(release);
+            return runs.incrementAndGet();
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 5; i++) {
+            small.execute("misha@gmail.com", "key-" + i, "Park", () -> -1);
+        }
+        assertThat(small.size()).isEqualTo(2);
+
+        var duplicate = CompletableFuture.supplyAsync(
+                () -> small.execute("misha@gmail.com", "running", "Hotel", runs::incrementAndGet));
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void testExecute_ConcurrentDuplicateWaits() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var first = CompletableFuture.supplyAsync(() -> store.execute("misha@gmail.com", "key", "Hotel", () -> {
+            started.countDown();
+            await(release);
+            return runs.incrementAndGet();
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        var duplicate = CompletableFuture.supplyAsync(
+                () -> store.execute("misha@gmail.com", "key", "Hotel", runs::incrementAndGet));
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(runs).hasValue(1);
+    }
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
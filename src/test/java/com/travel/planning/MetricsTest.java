@@ -0,0 +1,92 @@
+package com.travel.planning;
+
+import com.travel.planning.configuration.metrics.MetricsConfig;
+import com.travel.planning.configuration.metrics.RepositorySqlInterceptor;
+import com.travel.planning.configuration.metrics.SqlStatementCounter;
+import com.travel.planning.configuration.security.CredentialsCache;
+import com.travel.planning.configuration.security.TimedPasswordEncoder;
+import com.travel.planning.dto.response.ServicesDTO;
+import com.travel.planning.repository.TravelRepository;
+import com.travel.planning.service.IdempotencyStore;
+import com.travel.planning.service.ServicesCatalogCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.aopalliance.intercept.MethodInvocation;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class MetricsTest {
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testPasswordEncoder_Timed() {
+        var delegate = mock(PasswordEncoder.class);
+        var encoder = new TimedPasswordEncoder(delegate, registry);
+        when(delegate.encode("1234")).thenReturn("hash");
+        when(delegate.matches("1234", "hash")).thenReturn(true);
+
+        assertThat(encoder.encode("1234")).isEqualTo("hash");
+        assertThat(encoder.matches("1234", "hash")).isTrue();
+        assertThat(encoder.matches("1234", "hash")).isTrue();
+
+        assertThat(registry.get("security.password.encode").timer().count()).isEqualTo(1);
+        assertThat(registry.get("security.password.matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testCacheMetrics() {
+        var credentialsCache = new CredentialsCache(10, Duration.ofMinutes(5));
+        var servicesCatalogCache = new ServicesCatalogCache(10);
+        var idempotencyStore = new IdempotencyStore(10, Duration.ofHours(24));
+        new MetricsConfig().cacheMetrics(credentialsCache, servicesCatalogCache, idempotencyStore).bindTo(registry);
+
+        credentialsCache.get("missing");
+        servicesCatalogCache.get("Kiev", () -> List.of(ServicesDTO.builder().name("Hotel").city("Kiev").build()));
+        servicesCatalogCache.get("Kiev", List::of);
+        idempotencyStore.execute("misha@gmail.com", "key", "request", () -> 1);
+        idempotencyStore.execute("misha@gmail.com", "key", "request", () -> 2);
+
+        assertThat(registry.get("cache.gets").tags("cache", "credentials", "result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "services-catalog", "result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "services-catalog", "result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").tag("cache", "services-catalog").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "idempotency", "result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testRepositorySqlInterceptor() throws Throwable {
+        var counter = new SqlStatementCounter(registry);
+        var interceptor = new RepositorySqlInterceptor(() -> registry, "TravelRepository");
+        var invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(TravelRepository.class.getMethod("findAllWithServices"));
+        when(invocation.proceed()).thenAnswer(call -> {
+            counter.inspect("select 1");
+            counter.inspect("select 2");
+            return List.of();
+        });
+
+        interceptor.invoke(invocation);
+        interceptor.invoke(invocation);
+        counter.inspect("select 3");
+
+        var summary = registry.get("spring.data.repository.sql")
+                .tags("repository", "TravelRepository", "method", "findAllWithServices")
+                .summary();
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.totalAmount()).isEqualTo(4);
+        assertThat(registry.get("db.sql.statements").counter().count()).isEqualTo(5);
+    }
+}
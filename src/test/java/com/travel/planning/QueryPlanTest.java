@@ -0,0 +1,195 @@
+package com.travel.planning;
+
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.User;
+import com.travel.planning.repository.ConnectionsRepository;
+import com.travel.planning.repository.ServiceCapacityRepository;
+import com.travel.planning.repository.ServicesRepository;
+import com.travel.planning.repository.TravelRepository;
+import com.travel.planning.repository.UserRepository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL of every finder against the schema the migrations build in the embedded H2 database
+ * and fails when a table is scanned.
+ * Finders that read whole tables on purpose, like findAll, are not checked.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.test.database.replace = NONE",
+        "spring.datasource.driver-class-name = org.h2.Driver",
+        "spring.datasource.url = jdbc:h2:mem:plans;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username = sa",
+        "spring.datasource.password = ",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector = " +
+                "com.travel.planning.QueryPlanTest$Recorder"})
+public class QueryPlanTest {
+    @Autowired
+    ServicesRepository servicesRepository;
+    @Autowired
+    TravelRepository travelRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ConnectionsRepository connectionsRepository;
+    @Autowired
+    ServiceCapacityRepository serviceCapacityRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    final Cities city = Cities.builder().id(1L).name("Kiev").build();
+
+    public static class Recorder implements StatementInspector {
+        static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Recorder.statements.clear();
+    }
+
+    @Test
+    void servicesRepository_FindAllByCity() {
+        servicesRepository.findAllByCity(city);
+        assertNoTableScan();
+    }
+
+    @Test
+    void servicesRepository_FindByName() {
+        servicesRepository.findByName("Hotel");
+        assertNoTableScan();
+    }
+
+    @Test
+    void servicesRepository_FindByNameAndCity() {
+        servicesRepository.findByNameAndCity("Hotel", city);
+        assertNoTableScan();
+    }
+
+    @Test
+    void servicesRepository_FindAllByCityIn() {
+        servicesRepository.findAllByCityIn(List.of(city, Cities.builder().id(2L).name("Warsaw").build()));
+        assertNoTableScan();
+    }
+
+    @Test
+    void servicesRepository_FindAllByCityInAndNameIn() {
+        servicesRepository.findAllByCityInAndNameIn(List.of(city), List.of("Hotel", "Park"));
+        assertNoTableScan();
+    }
+
+    @Test
+    void servicesRepository_FindAllByNameIn() {
+        servicesRepository.findAllByNameIn(List.of("Hotel", "Park"));
+        assertNoTableScan();
+    }
+
+    @Test
+    void travelRepository_FindTravelByUser() {
+        travelRepository.findTravelByUser(User.builder().user_id(1L).build());
+        assertNoTableScan();
+    }
+
+    @Test
+    void travelRepository_FindAllByDeparture() {
+        travelRepository.findAllByDeparture(city);
+        assertNoTableScan();
+    }
+
+    @Test
+    void travelRepository_FindAllByDestination() {
+        travelRepository.findAllByDestination(city);
+        assertNoTableScan();
+    }
+
+    @Test
+    void travelRepository_FindIdsAfter() {
+        travelRepository.findIdsAfter(0L, Limit.of(10));
+        assertNoTableScan();
+    }
+
+    @Test
+    void travelRepository_FindAllWithServicesByIdIn() {
+        travelRepository.findAllWithServicesByIdIn(List.of(1L, 2L));
+        assertNoTableScan();
+    }
+
+    @Test
+    void travelRepository_FindIdsByDepartureOrDestination() {
+        travelRepository.findIdsByDepartureOrDestination(0L, 1L, 2L, Limit.of(10));
+        assertNoTableScan();
+    }
+
+    @Test
+    void userRepository_FindUserByEmail() {
+        userRepository.findUserByEmail("misha@gmail.com");
+        assertNoTableScan();
+    }
+
+    @Test
+    void connectionsRepository_FindByDepartureAndDestination() {
+        connectionsRepository.findByDepartureAndDestination(city, Cities.builder().id(2L).name("Warsaw").build());
+        assertNoTableScan();
+    }
+
+    // the JDBC batches are prepared outside of Hibernate but still pass its statement inspector
+    @Test
+    void serviceCapacityRepository_ReserveAll_Inspected() {
+        serviceCapacityRepository.reserveAll(List.of(1L, 2L), LocalDate.of(2024, 12, 12));
+        serviceCapacityRepository.releaseAll(LocalDate.of(2024, 12, 12), Map.of(1L, 1));
+        assertThat(Recorder.statements)
+                .hasSize(2)
+                .allMatch(sql -> sql.startsWith("UPDATE service_capacity"));
+    }
+
+    void assertNoTableScan() {
+        assertThat(Recorder.statements).isNotEmpty();
+        for (String sql : Recorder.statements) {
+            assertThat(explain(sql))
+                    .as(sql)
+                    .doesNotContain("tablescan");
+        }
+    }
+
+    String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatementCallback<String>) statement -> {
+            // the plan does not depend on the values, any of the right type will do
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setLong(i, i);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1));
+                }
+            }
+            return plan.toString().toLowerCase(Locale.ROOT);
+        });
+    }
+}
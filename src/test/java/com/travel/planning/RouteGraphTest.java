@@ -0,0 +1,116 @@
+package com.travel.planning;
+
+import com.travel.planning.dto.response.ConnectionDTO;
+import com.travel.planning.dto.response.RouteDTO;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Connections;
+import com.travel.planning.repository.ConnectionsRepository;
+import com.travel.planning.service.RouteGraph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class RouteGraphTest {
+    final Map<String, Cities> cities = new HashMap<>();
+    final ConnectionsRepository connectionsRepository = mock(ConnectionsRepository.class);
+    final RouteGraph routeGraph = new RouteGraph(connectionsRepository);
+
+    /**
+     * Kiev -> Warsaw -> Berlin -> Paris is the fastest way to Paris, Kiev -> Vienna -> Paris the cheapest.
+     */
+    void givenConnections() {
+        when(connectionsRepository.findAll()).thenReturn(new ArrayList<>(List.of(
+                connection("Kiev", "Warsaw", 540, 45),
+                connection("Warsaw", "Berlin", 330, 40),
+                connection("Berlin", "Paris", 480, 90),
+                connection("Kiev", "Vienna", 1080, 75),
+                connection("Vienna", "Paris", 840, 50),
+                connection("Vienna", "Berlin", 510, 60),
+                connection("Paris", "Kiev", 1500, 120))));
+        routeGraph.reload();
+    }
+
+    @Test
+    void testFind_ByDuration() {
+        givenConnections();
+
+        List<RouteDTO> routes = routeGraph.find("Kiev", "Paris", RouteGraph.Weight.DURATION, 1);
+
+        assertThat(routes).hasSize(1);
+        assertThat(cities(routes.get(0))).containsExactly("Kiev", "Warsaw", "Berlin", "Paris");
+        assertThat(routes.get(0).getDuration()).isEqualTo(1350);
+        assertThat(routes.get(0).getCost()).isEqualTo(175);
+    }
+
+    @Test
+    void testFind_ByCost() {
+        givenConnections();
+
+        List<RouteDTO> routes = routeGraph.find("kiev", "PARIS", RouteGraph.Weight.COST, 1);
+
+        assertThat(cities(routes.get(0))).containsExactly("Kiev", "Vienna", "Paris");
+        assertThat(routes.get(0).getCost()).isEqualTo(125);
+    }
+
+    @Test
+    void testFind_KShortest() {
+        givenConnections();
+
+        List<RouteDTO> routes = routeGraph.find("Kiev", "Paris", RouteGraph.Weight.DURATION, 5);
+
+        assertThat(routes).extracting(RouteDTO::getDuration).containsExactly(1350L, 1920L, 2070L);
+        assertThat(cities(routes.get(1))).containsExactly("Kiev", "Vienna", "Paris");
+        assertThat(cities(routes.get(2))).containsExactly("Kiev", "Vienna", "Berlin", "Paris");
+    }
+
+    @Test
+    void testFind_NoRoute() {
+        givenConnections();
+        routeGraph.register(connection("Lisbon", "Madrid", 120, 20));
+
+        assertThat(routeGraph.find("Paris", "Rome", RouteGraph.Weight.DURATION, 1)).isEmpty();
+        assertThat(routeGraph.find("Kiev", "Madrid", RouteGraph.Weight.DURATION, 1)).isEmpty();
+        assertThat(routeGraph.find("Kiev", "Kiev", RouteGraph.Weight.DURATION, 1)).isEmpty();
+    }
+
+    @Test
+    void testRegister_Incremental() {
+        givenConnections();
+
+        routeGraph.register(connection("Berlin", "Lisbon", 300, 30));
+        routeGraph.register(connection("Kiev", "Warsaw", 60, 100));
+
+        List<RouteDTO> routes = routeGraph.find("Kiev", "Lisbon", RouteGraph.Weight.DURATION, 1);
+        assertThat(cities(routes.get(0))).containsExactly("Kiev", "Warsaw", "Berlin", "Lisbon");
+        assertThat(routes.get(0).getDuration()).isEqualTo(690);
+        assertThat(routeGraph.size()).isEqualTo(8);
+        verify(connectionsRepository, times(1)).findAll();
+    }
+
+    Connections connection(String departure, String destination, int duration, int cost) {
+        return Connections.builder()
+                .departure(city(departure))
+                .destination(city(destination))
+                .duration(duration)
+                .cost(cost)
+                .build();
+    }
+
+    Cities city(String name) {
+        return cities.computeIfAbsent(name, key -> Cities.builder().id((long) cities.size() + 1).name(name).build());
+    }
+
+    static List<String> cities(RouteDTO route) {
+        List<String> cities = new ArrayList<>();
+        cities.add(route.getLegs().get(0).getDeparture());
+        route.getLegs().stream().map(ConnectionDTO::getDestination).forEach(cities::add);
+        return cities;
+    }
+}
@@ -0,0 +1,146 @@
+package com.travel.planning;
+
+import com.travel.planning.dto.request.ConnectionRequest;
+import com.travel.planning.dto.response.ConnectionDTO;
+import com.travel.planning.dto.response.RouteDTO;
+import com.travel.planning.exception.TravelException;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Connections;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ConnectionsRepository;
+import com.travel.planning.service.CityRegistry;
+import com.travel.planning.service.RouteGraph;
+import com.travel.planning.service.RoutePlanningService;
+import com.travel.planning.service.SearchIndex;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoutePlanningServiceTest {
+    @Mock
+    ConnectionsRepository connectionsRepository;
+
+    @Mock
+    CitiesRepository citiesRepository;
+
+    @Mock
+    CityRegistry cityRegistry;
+
+    @Mock
+    RouteGraph routeGraph;
+
+    @Mock
+    SearchIndex searchIndex;
+
+    @InjectMocks
+    RoutePlanningService routePlanningService;
+
+    final Cities kiev = new Cities(1L, "Kiev");
+    final Cities warsaw = new Cities(2L, "Warsaw");
+
+    @Test
+    void testFindRoutes() {
+        var expect = List.of(RouteDTO.builder()
+                .legs(List.of(ConnectionDTO.builder().departure("Kiev").destination("Warsaw").duration(540).cost(45)
+                        .build()))
+                .duration(540)
+                .cost(45)
+                .build());
+
+        when(cityRegistry.find("Kiev")).thenReturn(Optional.of(kiev));
+        when(cityRegistry.find("Warsaw")).thenReturn(Optional.of(warsaw));
+        when(routeGraph.find("Kiev", "Warsaw", RouteGraph.Weight.DURATION, 3)).thenReturn(expect);
+
+        assertThat(routePlanningService.findRoutes("Kiev", "Warsaw", RouteGraph.Weight.DURATION, 3))
+                .isEqualTo(expect);
+    }
+
+    @Test
+    void testFindRoutes_NoRoute() {
+        when(cityRegistry.find("Kiev")).thenReturn(Optional.of(kiev));
+        when(cityRegistry.find("Warsaw")).thenReturn(Optional.of(warsaw));
+        when(routeGraph.find("Kiev", "Warsaw", RouteGraph.Weight.COST, 1)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> routePlanningService.findRoutes("Kiev", "Warsaw", RouteGraph.Weight.COST, 1))
+                .isInstanceOf(TravelException.class)
+                .hasMessage("There is no route between these cities");
+    }
+
+    @Test
+    void testFindRoutes_WrongLimit() {
+        assertThatThrownBy(() -> routePlanningService.findRoutes("Kiev", "Warsaw", RouteGraph.Weight.COST,
+                RouteGraph.MAX_ROUTES + 1))
+                .isInstanceOf(TravelException.class)
+                .hasMessage("The number of routes must be between 1 and " + RouteGraph.MAX_ROUTES);
+        verifyNoInteractions(routeGraph);
+    }
+
+    @Test
+    void testAddConnection() {
+        var expect = ConnectionDTO.builder().departure("Kiev").destination("Warsaw").duration(540).cost(45).build();
+
+        when(cityRegistry.find("Kiev")).thenReturn(Optional.of(kiev));
+        when(cityRegistry.find("Warsaw")).thenReturn(Optional.of(warsaw));
+        when(connectionsRepository.saveAndFlush(any(Connections.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(routePlanningService.addConnection(new ConnectionRequest("Kiev", "Warsaw", 540, 45)))
+                .isEqualTo(expect);
+        verify(routeGraph).register(argThat(connection -> connection.getDeparture() == kiev
+                && connection.getDestination() == warsaw && connection.getDuration() == 540
+                && connection.getCost() == 45));
+    }
+
+    @Test
+    void testAddConnection_AlreadyExists() {
+        when(cityRegistry.find("Kiev")).thenReturn(Optional.of(kiev));
+        when(cityRegistry.find("Warsaw")).thenReturn(Optional.of(warsaw));
+        when(connectionsRepository.saveAndFlush(any(Connections.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry",
+                        new ConstraintViolationException("Duplicate entry", null, "connections.uk_connection_route")));
+
+        assertThatThrownBy(() -> routePlanningService.addConnection(new ConnectionRequest("Kiev", "Warsaw", 60, 10)))
+                .isInstanceOf(TravelException.class)
+                .hasMessage("The connection already exists");
+        verifyNoInteractions(routeGraph);
+    }
+
+    @Test
+    void testAddConnection_OtherConstraint() {
+        var error = new DataIntegrityViolationException("Cannot add or update a child row",
+                new ConstraintViolationException("Cannot add or update a child row", null,
+                        "connections.fk_connections_departure"));
+        when(cityRegistry.find("Kiev")).thenReturn(Optional.of(kiev));
+        when(cityRegistry.find("Warsaw")).thenReturn(Optional.of(warsaw));
+        when(connectionsRepository.saveAndFlush(any(Connections.class))).thenThrow(error);
+
+        assertThatThrownBy(() -> routePlanningService.addConnection(new ConnectionRequest("Kiev", "Warsaw", 60, 10)))
+                .isSameAs(error);
+        verifyNoInteractions(routeGraph);
+    }
+
+    @Test
+    void testAddConnection_SameCity() {
+        assertThatThrownBy(() -> routePlanningService.addConnection(new ConnectionRequest("Kiev", "kiev", 60, 10)))
+                .isInstanceOf(TravelException.class)
+                .hasMessage("The departure and destination cities are the same");
+        verifyNoInteractions(citiesRepository, connectionsRepository);
+    }
+}
@@ -0,0 +1,65 @@
+package com.travel.planning;
+
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ConnectionsRepository;
+import com.travel.planning.repository.UserRepository;
+
+import org.flywaydb.core.Flyway;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The context only starts when the migrated schema matches the entities (ddl-auto = validate).
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.test.database.replace = NONE",
+        "spring.datasource.driver-class-name = org.h2.Driver",
+        "spring.datasource.url = jdbc:h2:mem:migrations;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username = sa",
+        "spring.datasource.password = "})
+public class SchemaMigrationTest {
+    @Autowired
+    Flyway flyway;
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    CitiesRepository citiesRepository;
+    @Autowired
+    ConnectionsRepository connectionsRepository;
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void testMigrate() {
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("2");
+        assertThat(citiesRepository.count()).isEqualTo(7);
+        assertThat(connectionsRepository.count()).isEqualTo(16);
+        assertThat(userRepository.findUserByEmail("misha@gmail.com")).isPresent();
+    }
+
+    @Test
+    void testMigrate_Again() {
+        assertThat(flyway.migrate().migrationsExecuted).isZero();
+        assertThat(citiesRepository.count()).isEqualTo(7);
+    }
+
+    @Test
+    void testSeed_Idempotent() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/seed/V2__seed.sql")).execute(dataSource);
+
+        assertThat(citiesRepository.count()).isEqualTo(7);
+        assertThat(connectionsRepository.count()).isEqualTo(16);
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+}
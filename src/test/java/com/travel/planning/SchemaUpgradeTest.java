@@ -0,0 +1,109 @@
+package com.travel.planning;
+
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Travel;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServicesRepository;
+import com.travel.planning.repository.TravelRepository;
+
+import org.flywaydb.core.Flyway;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database created before the migrations, baselined once as the migrations' comments describe.
+ * The context only starts when the upgraded schema matches the entities (ddl-auto = validate).
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.test.database.replace = NONE",
+        "spring.flyway.baseline-on-migrate = true"})
+@Testcontainers
+public class SchemaUpgradeTest {
+    @Container
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:latest")
+            .withInitScript("db/pre-series.sql");
+
+    @Autowired
+    Flyway flyway;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    CitiesRepository citiesRepository;
+    @Autowired
+    ServicesRepository servicesRepository;
+    @Autowired
+    TravelRepository travelRepository;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry){
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Test
+    void testUpgrade() {
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("2");
+
+        Travel travel = travelRepository.findById(1L).orElseThrow();
+        assertThat(travel.getDeparture().getName()).isEqualTo("Warsaw");
+        assertThat(travel.getDestination().getName()).isEqualTo("Lviv");
+        assertThat(servicesRepository.findByName("Museum").orElseThrow().getCity().getId()).isEqualTo(2000L);
+        assertThat(servicesRepository.findByName("Hotel").orElseThrow().getCity().getName()).isEqualTo("Kiev");
+    }
+
+    @Test
+    void testUpgrade_DuplicateBookingsRemoved() {
+        assertThat(jdbcTemplate.queryForList("SELECT service_id FROM travel_services WHERE travel_id = 1 " +
+                "ORDER BY service_id", Long.class)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testUpgrade_SeedMatchedByName() {
+        assertThat(jdbcTemplate.queryForList("SELECT c.name FROM services s JOIN cities c ON c.id = s.city_id " +
+                "WHERE s.name = 'Hotel'", String.class)).containsExactly("Kiev");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM connections WHERE departure_id = 2001 " +
+                "AND destination_id = 2", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM connections WHERE departure_id = 1 " +
+                "OR destination_id = 1", Integer.class)).isZero();
+    }
+
+    @Test
+    void testUpgrade_IdsAfterExisting() {
+        Cities city = citiesRepository.save(Cities.builder().name("Odesa").build());
+
+        assertThat(city.getId()).isGreaterThan(2000L);
+    }
+
+    @Test
+    void testUpgrade_ConstraintsNamed() {
+        assertThat(jdbcTemplate.queryForList("SELECT constraint_name FROM information_schema.table_constraints " +
+                "WHERE table_schema = DATABASE() AND table_name IN ('cities', 'travel', 'services', 'travel_services') " +
+                "AND constraint_type <> 'PRIMARY KEY'", String.class))
+                .containsExactlyInAnyOrder("uk_cities_name", "uk_travel_user", "fk_travel_user",
+                        "fk_travel_departure", "fk_travel_destination", "fk_services_city", "uk_travel_service",
+                        "fk_travel_services_service", "fk_travel_services_travel");
+    }
+
+    @Test
+    void testUpgrade_FinderIndexes() {
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT index_name FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND index_name LIKE 'idx\\_%'", String.class))
+                .containsExactlyInAnyOrder("idx_services_city_name", "idx_services_name", "idx_travel_departure",
+                        "idx_travel_destination", "idx_user_email");
+    }
+}
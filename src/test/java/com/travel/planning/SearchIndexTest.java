@@ -0,0 +1,102 @@
+package com.travel.planning;
+
+import com.travel.planning.dto.response.SearchResultDTO;
+import com.travel.planning.dto.response.SearchResultDTO.Type;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Services;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServicesRepository;
+import com.travel.planning.service.SearchIndex;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class SearchIndexTest {
+    final CitiesRepository citiesRepository = mock(CitiesRepository.class);
+    final ServicesRepository servicesRepository = mock(ServicesRepository.class);
+    final SearchIndex searchIndex = new SearchIndex(citiesRepository, servicesRepository);
+
+    final Cities kiev = Cities.builder().id(1L).name("Kiev").build();
+    final Cities warsaw = Cities.builder().id(2L).name("Warsaw").build();
+    final Cities vienna = Cities.builder().id(3L).name("Vienna").build();
+
+    @BeforeEach
+    void setUp() {
+        when(citiesRepository.findAll()).thenReturn(List.of(kiev, warsaw, vienna));
+        when(servicesRepository.findAllBy()).thenReturn(List.of(
+                Services.builder().name("Hotel").city(kiev).build(),
+                Services.builder().name("Hotel").city(warsaw).build(),
+                Services.builder().name("Central Park").city(vienna).build(),
+                Services.builder().name("War Museum").city(kiev).build()));
+        searchIndex.reload();
+    }
+
+    @Test
+    void testSearch_Prefix() {
+        assertThat(searchIndex.search("War", null, 10)).containsExactly(
+                city("Warsaw"),
+                service("War Museum", "Kiev"));
+    }
+
+    @Test
+    void testSearch_ExactFirst() {
+        assertThat(searchIndex.search(" HOTEL ", null, 10)).containsExactly(
+                service("Hotel", "Kiev"),
+                service("Hotel", "Warsaw"));
+    }
+
+    @Test
+    void testSearch_WordPrefix() {
+        assertThat(searchIndex.search("park", Type.SERVICE, 10)).containsExactly(
+                service("Central Park", "Vienna"));
+        assertThat(searchIndex.search("mus", null, 10)).containsExactly(
+                service("War Museum", "Kiev"));
+    }
+
+    @Test
+    void testSearch_Typos() {
+        assertThat(searchIndex.search("Wrasaw", Type.CITY, 10)).containsExactly(city("Warsaw"));
+        assertThat(searchIndex.search("hotl", null, 1)).containsExactly(service("Hotel", "Kiev"));
+        assertThat(searchIndex.search("cetnral", null, 10)).containsExactly(service("Central Park", "Vienna"));
+        assertThat(searchIndex.search("vienan", null, 10)).containsExactly(city("Vienna"));
+        assertThat(searchIndex.search("xyz", null, 10)).isEmpty();
+    }
+
+    @Test
+    void testSearch_TypeAndLimit() {
+        assertThat(searchIndex.search("v", Type.CITY, 10)).containsExactly(city("Vienna"));
+        assertThat(searchIndex.search("", null, 10)).isEmpty();
+        assertThat(searchIndex.search("hotel", null, 1)).hasSize(1);
+    }
+
+    @Test
+    void testRegister_Incremental() {
+        var oslo = Cities.builder().name("Oslo").build();
+
+        searchIndex.registerAll(List.of(oslo), List.of(
+                Services.builder().name("Opera").city(oslo).build(),
+                Services.builder().name("Hotel").city(kiev).build()));
+        searchIndex.register(Services.builder().name("Hostel").city(warsaw).build());
+
+        assertThat(searchIndex.search("o", null, 10)).containsExactly(
+                city("Oslo"),
+                service("Opera", "Oslo"));
+        assertThat(searchIndex.search("hos", null, 10)).containsExactly(
+                service("Hostel", "Warsaw"));
+        assertThat(searchIndex.size()).isEqualTo(10);
+        verify(citiesRepository, times(1)).findAll();
+    }
+
+    static SearchResultDTO city(String name) {
+        return SearchResultDTO.builder().type(Type.CITY).name(name).build();
+    }
+
+    static SearchResultDTO service(String name, String city) {
+        return SearchResultDTO.builder().type(Type.SERVICE).name(name).city(city).build();
+    }
+}
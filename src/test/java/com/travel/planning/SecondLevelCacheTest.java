@@ -0,0 +1,128 @@
+package com.travel.planning;
+
+import com.travel.planning.configuration.SecondLevelCacheConfig;
+import com.travel.planning.dto.response.TravelDTO;
+import com.travel.planning.model.Cities;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.TravelRepository;
+import com.travel.planning.service.CityRegistry;
+import com.travel.planning.service.SearchIndex;
+import com.travel.planning.service.ServicesCatalogCache;
+import com.travel.planning.service.TravelPlanningService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the seed data of the migrations with the second-level cache of the application, outside of a
+ * test transaction so that every call gets a fresh persistence context, as a request does.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SecondLevelCacheConfig.class, TravelPlanningService.class, CityRegistry.class, ServicesCatalogCache.class,
+        SearchIndex.class})
+@TestPropertySource(properties = {
+        "spring.test.database.replace = NONE",
+        "spring.datasource.driver-class-name = org.h2.Driver",
+        "spring.datasource.url = jdbc:h2:mem:cache;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username = sa",
+        "spring.datasource.password = ",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector = " +
+                "com.travel.planning.SecondLevelCacheTest$Recorder"})
+public class SecondLevelCacheTest {
+    @Autowired
+    TravelPlanningService travelPlanningService;
+    @Autowired
+    CitiesRepository citiesRepository;
+    @Autowired
+    TravelRepository travelRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    public static class Recorder implements StatementInspector {
+        static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // departure, destination and the city of the booked service all differ
+        jdbcTemplate.update("INSERT IGNORE INTO travel(id, travel_time, user_id, departure_id, destination_id) " +
+                "VALUES (1, '2024-12-12 12:12:12', 1, 2, 3)");
+        jdbcTemplate.update("INSERT IGNORE INTO travel_services(travel_id, service_id) VALUES (1, 1)");
+        entityManagerFactory.getCache().evictAll();
+        Recorder.statements.clear();
+    }
+
+    @Test
+    void getTravels_OneStatementWithCitiesJoined() {
+        assertThat(travelPlanningService.getTravels()).hasSize(1);
+        Recorder.statements.clear();
+
+        List<TravelDTO> travels = travelPlanningService.getTravels();
+
+        assertThat(travels.get(0).getDeparture()).isEqualTo("Warsaw");
+        assertThat(travels.get(0).getDestination()).isEqualTo("Berlin");
+        assertThat(Recorder.statements).singleElement().asString().contains("join cities");
+    }
+
+    @Test
+    void getTravels_CitiesCachedFromJoin() {
+        travelPlanningService.getTravels();
+
+        assertThat(entityManagerFactory.getCache().contains(Cities.class, 2L)).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(Cities.class, 3L)).isTrue();
+        Recorder.statements.clear();
+
+        assertThat(citiesRepository.findById(3L)).map(Cities::getName).contains("Berlin");
+        assertThat(Recorder.statements).isEmpty();
+    }
+
+    @Test
+    void getTravels_AfterBooking_OneStatementWithCitiesJoined() {
+        travelPlanningService.getTravels();
+        transactionTemplate.executeWithoutResult(status -> travelRepository.insertService(1L, 1L));
+        Recorder.statements.clear();
+
+        travelPlanningService.getTravels();
+
+        assertThat(Recorder.statements).singleElement().asString().contains("join cities");
+    }
+
+    @Test
+    void citiesRepository_FindCitiesByName_Cached() {
+        citiesRepository.findCitiesByName("Kiev");
+        Recorder.statements.clear();
+
+        assertThat(citiesRepository.findCitiesByName("Kiev")).isPresent();
+        assertThat(Recorder.statements).isEmpty();
+    }
+}
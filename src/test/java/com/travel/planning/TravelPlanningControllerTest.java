@@ -9,6 +9,10 @@ import com.travel.planning.dto.response.*;
 import com.travel.planning.exception.ServicesException;
 import com.travel.planning.exception.TravelException;
 import com.travel.planning.model.User;
+import com.travel.planning.service.CatalogImportService;
+import com.travel.planning.service.IdempotencyStore;
+import com.travel.planning.service.RouteGraph;
+import com.travel.planning.service.RoutePlanningService;
 import com.travel.planning.service.TravelPlanningService;
 import com.travel.planning.service.UserDetailsServiceImp;
 
@@ -25,19 +29,27 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TravelPlanningController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, IdempotencyStore.class})
 public class TravelPlanningControllerTest {
     @Autowired
     MockMvc mockMvc;
@@ -46,6 +58,10 @@ public class TravelPlanningControllerTest {
     TravelPlanningService travelPlanningService;
     @MockBean
     UserDetailsServiceImp userDetailsService;
+    @MockBean
+    CatalogImportService catalogImportService;
+    @MockBean
+    RoutePlanningService routePlanningService;
 
     @Autowired
     ObjectMapper mapper;
@@ -113,6 +129,37 @@ public class TravelPlanningControllerTest {
                 .andExpect(content().string("Such a user already exists!"));
     }
 
+    @Test
+    void testTokenEndpoint() throws Exception {
+        var user = User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .role(Role.TRAVELER)
+                .build();
+
+        var expect = List.of(ServicesDTO.builder().city("Berlin").name("Hotel").build());
+
+        when(travelPlanningService.getServices(user)).thenReturn(expect);
+        SecurityContextHolder.getContext().setAuthentication(new PreAuthenticatedAuthenticationToken(
+                new UserAdapter(user), null, List.of(new SimpleGrantedAuthority(user.getRole().toString()))
+        ));
+
+        var result = mockMvc.perform(post("/token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type").value("Bearer"))
+                .andReturn();
+        var token = mapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+        TestSecurityContextHolder.clearContext();
+
+        mockMvc.perform(get("/services").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().string((mapper.writeValueAsString(expect))));
+        mockMvc.perform(get("/services").header("Authorization", "Bearer " + token + "x"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/token").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void testCreateTravelEndpoint() throws Exception {
         var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
@@ -138,6 +185,45 @@ public class TravelPlanningControllerTest {
                 .andExpect(content().string((mapper.writeValueAsString(expect))));
     }
 
+    @Test
+    void testCreateTravelEndpoint_IdempotencyKey() throws Exception {
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+        var travelRequest = new TravelRequest("Kiev", "Berlin", time);
+        var user = User.builder()
+                .email("retry@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build();
+
+        var expect = TravelDTO.builder().departure("Kiev").destination("Berlin").travel_time(time).build();
+
+        when(travelPlanningService.createTravel(travelRequest, user))
+                .thenReturn(expect)
+                .thenThrow(new TravelException("You have already planned your travel"));
+        SecurityContextHolder.getContext().setAuthentication(new PreAuthenticatedAuthenticationToken(
+                new UserAdapter(user), null, List.of(new SimpleGrantedAuthority(user.getRole().toString()))
+        ));
+
+        for (int i = 0; i < 2; i++) {
+            var requestBuilder = post("/travel/create")
+                    .header(IdempotencyStore.HEADER, "create-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(travelRequest));
+            mockMvc.perform(requestBuilder)
+                    .andExpect(status().isCreated())
+                    .andExpect(content().string((mapper.writeValueAsString(expect))));
+        }
+        verify(travelPlanningService, times(1)).createTravel(travelRequest, user);
+
+        var otherRequest = post("/travel/create")
+                .header(IdempotencyStore.HEADER, "create-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new TravelRequest("Kiev", "Paris", time)));
+        mockMvc.perform(otherRequest)
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").value("The Idempotency-Key was already used for another request"));
+    }
+
     @Test
     void testCreateTravelEndpoint_AlreadyPlanned() throws Exception {
         var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
@@ -302,6 +388,49 @@ public class TravelPlanningControllerTest {
                 .andExpect(jsonPath("$.error").value("There is no service with that name"));
     }
 
+    @Test
+    void testBookServicesEndpoint() throws Exception {
+        var request = new BatchServiceRequest(List.of("Hotel", "Zoo"));
+        var user = User.builder()
+                .email("misha@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build();
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+        var expect = BatchBookingDTO.builder()
+                .travel(TravelDTO.builder().departure("Berlin").destination("Kiev").travel_time(time)
+                        .services(List.of(ServicesDTO.builder().name("Hotel").city("Kiev").build())).build())
+                .results(List.of(
+                        BookingResultDTO.builder().name("Hotel").status(BookingResultDTO.Status.BOOKED).build(),
+                        BookingResultDTO.builder().name("Zoo").status(BookingResultDTO.Status.NOT_FOUND)
+                                .error("There is no service with that name").build()))
+                .build();
+
+        when(travelPlanningService.bookServices(request, user))
+                .thenReturn(expect);
+        SecurityContextHolder.getContext().setAuthentication(new PreAuthenticatedAuthenticationToken(
+                new UserAdapter(user), null, List.of(new SimpleGrantedAuthority(user.getRole().toString()))
+        ));
+
+        var requestBuilder = post("/services/book/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(request));
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(content().string((mapper.writeValueAsString(expect))));
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "TRAVELER")
+    void testBookServicesEndpoint_Empty() throws Exception {
+        var requestBuilder = post("/services/book/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new BatchServiceRequest(List.of())));
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Write down the names of services!"));
+    }
+
     @Test
     void testCompleteTravel() throws Exception {
         var user = User.builder()
@@ -358,6 +487,55 @@ public class TravelPlanningControllerTest {
                 .andExpect(content().string((mapper.writeValueAsString(expect))));
     }
 
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "ADMIN")
+    void testGetTravelsPage() throws Exception {
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+        var expect = TravelPageDTO.builder()
+                .travels(List.of(TravelDTO.builder().destination("Kiev").departure("Berlin").travel_time(time)
+                        .services(List.of()).build()))
+                .next(7L)
+                .build();
+
+        when(travelPlanningService.getTravels(3L, 1)).thenReturn(expect);
+
+        var requestBuilder = get("/travel/page").param("after", "3").param("size", "1");
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(content().string((mapper.writeValueAsString(expect))));
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "TRAVELER")
+    void testGetTravelsPage_WrongRole() throws Exception {
+        mockMvc.perform(get("/travel/page"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "ADMIN")
+    @SuppressWarnings("unchecked")
+    void testStreamTravels() throws Exception {
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+        var services = List.of(ServicesDTO.builder().city("Kiev").name("Hotel").build());
+
+        var expect = List.of(TravelDTO.builder().destination("Kiev").departure("Berlin")
+                        .travel_time(time).services(services).build(),
+                TravelDTO.builder().destination("Kiev").departure("Kiev").travel_time(time).services(services).build());
+
+        doAnswer(invocation -> {
+            expect.forEach(invocation.<Consumer<TravelDTO>>getArgument(0));
+            return null;
+        }).when(travelPlanningService).streamTravels(any(Consumer.class));
+
+        var result = mockMvc.perform(get("/travel/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(expect)));
+    }
+
     @Test
     @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "ADMIN")
     void testDeleteTrips() throws Exception {
@@ -413,6 +591,161 @@ public class TravelPlanningControllerTest {
                 .andExpect(jsonPath("$.error").value("The service already exists"));
     }
 
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "ADMIN")
+    void testImportServices() throws Exception {
+        var expect = List.of(ImportResultDTO.builder().line(1).name("Hotel").city("Kiev")
+                        .status(ImportResultDTO.Status.CREATED).build(),
+                ImportResultDTO.builder().line(2).status(ImportResultDTO.Status.INVALID)
+                        .error("Expected city,service").build());
+
+        when(catalogImportService.importServices(any(), eq(CatalogImportService.Format.CSV)))
+                .thenReturn(expect);
+
+        var requestBuilder = post("/services/import")
+                .contentType("text/csv")
+                .content("Kiev,Hotel\nKiev");
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(content().string((mapper.writeValueAsString(expect))));
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "ADMIN")
+    void testSetCapacity() throws Exception {
+        var capacityRequest = new CapacityRequest("Hotel", "Kiev", LocalDate.of(2024, 12, 12), 20);
+
+        var expect = CapacityDTO.builder().name("Hotel").city("Kiev").date(LocalDate.of(2024, 12, 12))
+                .capacity(20).remaining(18).build();
+
+        when(travelPlanningService.setCapacity(capacityRequest)).thenReturn(expect);
+
+        var requestBuilder = post("/services/capacity")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(capacityRequest));
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(content().string((mapper.writeValueAsString(expect))));
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "TRAVELER")
+    void testSetCapacity_WrongRole() throws Exception {
+        var requestBuilder = post("/services/capacity")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Hotel\",\"city\":\"Kiev\",\"date\":\"2024-12-12\",\"capacity\":20}");
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "TRAVELER")
+    void testImportServices_WrongRole() throws Exception {
+        var requestBuilder = post("/services/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"name\":\"Hotel\",\"city\":\"Kiev\"}");
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "TRAVELER")
+    void testFindRoutes() throws Exception {
+        var expect = List.of(RouteDTO.builder()
+                .legs(List.of(
+                        ConnectionDTO.builder().departure("Kiev").destination("Warsaw").duration(540).cost(45).build(),
+                        ConnectionDTO.builder().departure("Warsaw").destination("Berlin").duration(330).cost(40)
+                                .build()))
+                .duration(870)
+                .cost(85)
+                .build());
+
+        when(routePlanningService.findRoutes("Kiev", "Berlin", RouteGraph.Weight.COST, 3))
+                .thenReturn(expect);
+
+        var requestBuilder = get("/routes")
+                .param("departure", "Kiev")
+                .param("destination", "Berlin")
+                .param("weight", "COST")
+                .param("limit", "3");
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(content().string((mapper.writeValueAsString(expect))));
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "TRAVELER")
+    void testFindRoutes_NoRoute() throws Exception {
+        when(routePlanningService.findRoutes("Kiev", "Lisbon", RouteGraph.Weight.DURATION, 1))
+                .thenThrow(new TravelException("There is no route between these cities"));
+
+        var requestBuilder = get("/routes")
+                .param("departure", "Kiev")
+                .param("destination", "Lisbon");
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("There is no route between these cities"));
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "ADMIN")
+    void testAddConnection() throws Exception {
+        var request = new ConnectionRequest("Kiev", "Warsaw", 540, 45);
+        var expect = ConnectionDTO.builder().departure("Kiev").destination("Warsaw").duration(540).cost(45).build();
+
+        when(routePlanningService.addConnection(request))
+                .thenReturn(expect);
+
+        var requestBuilder = post("/connections/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(request));
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(content().string((mapper.writeValueAsString(expect))));
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "TRAVELER")
+    void testAddConnection_WrongRole() throws Exception {
+        var requestBuilder = post("/connections/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new ConnectionRequest("Kiev", "Warsaw", 540, 45)));
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "ADMIN")
+    void testAddConnection_Validation() throws Exception {
+        var requestBuilder = post("/connections/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new ConnectionRequest("Kiev", "Warsaw", 0, 45)));
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("The duration must be positive"));
+    }
+
+    @Test
+    @WithMockUser(username = "misha@gmail.com", password = "1234", authorities = "TRAVELER")
+    void testSearch() throws Exception {
+        var expect = List.of(
+                SearchResultDTO.builder().type(SearchResultDTO.Type.CITY).name("Warsaw").build(),
+                SearchResultDTO.builder().type(SearchResultDTO.Type.SERVICE).name("War Museum").city("Kiev").build());
+
+        when(travelPlanningService.search("war", null, 10))
+                .thenReturn(expect);
+
+        mockMvc.perform(get("/search").param("query", "war"))
+                .andExpect(status().isOk())
+                .andExpect(content().string((mapper.writeValueAsString(expect))));
+    }
+
+    @Test
+    void testSearch_Unauthorized() throws Exception {
+        mockMvc.perform(get("/search").param("query", "war"))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     @WithMockUser(username = "email@gmail.com", password = "1234", authorities = "ADMIN")
     void testValidation() throws Exception {
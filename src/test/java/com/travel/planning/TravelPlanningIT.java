@@ -5,15 +5,31 @@ import com.travel.planning.dto.response.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.travel.planning.configuration.security.CredentialsCache;
+import com.travel.planning.configuration.security.Role;
+import com.travel.planning.exception.TravelException;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Services;
+import com.travel.planning.model.Travel;
+import com.travel.planning.model.User;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServicesRepository;
+import com.travel.planning.repository.TravelRepository;
+import com.travel.planning.repository.UserRepository;
+import com.travel.planning.service.TravelPlanningService;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
@@ -25,7 +41,12 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -47,6 +68,21 @@ class TravelPlanningIT {
 	@Autowired
 	ObjectMapper mapper;
 
+	@Autowired
+	TravelPlanningService travelPlanningService;
+	@Autowired
+	TravelRepository travelRepository;
+	@Autowired
+	UserRepository userRepository;
+	@Autowired
+	CitiesRepository citiesRepository;
+	@Autowired
+	ServicesRepository servicesRepository;
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	@Autowired
+	CredentialsCache credentialsCache;
+
 	final RequestPostProcessor postProcessor = SecurityMockMvcRequestPostProcessors
 			.httpBasic("misha@gmail.com", "1234");
 	final String createTraveler = "INSERT INTO user(user_id, email, password, role) " +
@@ -61,6 +97,11 @@ class TravelPlanningIT {
 		registry.add("spring.datasource.password", mysql::getPassword);
 	}
 
+	@BeforeEach
+	void clearCredentials() {
+		credentialsCache.clear(); //every test inserts its own misha@gmail.com, with its own role
+	}
+
 	@Test
 	void testRegisterEndpoint() throws Exception {
 		var registrationRequest = new RegistrationRequest(
@@ -129,8 +170,8 @@ class TravelPlanningIT {
 
 	@Test
 	@Sql(statements = {createTraveler, "INSERT INTO cities(id, name) VALUES (1, 'Kiev'), (2, 'Berlin')",
-			"INSERT INTO travel(id, user_id, travel_time, departure, destination) " +
-					"VALUES (1, 1, '2020-12-12 12:12:12', 'Kiev', 'Berlin')"})
+			"INSERT INTO travel(id, user_id, travel_time, departure_id, destination_id) " +
+					"VALUES (1, 1, '2020-12-12 12:12:12', 1, 2)"})
 	void testCreateTravelEndpoint_AlreadyPlanned() throws Exception {
 		var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
 		var travelRequest = new TravelRequest("Kiev", "Berlin", time);
@@ -162,7 +203,7 @@ class TravelPlanningIT {
 
 	@Test
 	@Sql(statements = {createAdmin, "INSERT INTO cities(id, name) VALUES (1, 'Berlin')",
-			"INSERT INTO services(id, name, city) VALUES (1, 'Hotel', 'Berlin'), (2, 'Park', 'Berlin')"})
+			"INSERT INTO services(id, name, city_id) VALUES (1, 'Hotel', 1), (2, 'Park', 1)"})
 	void testGetServices() throws Exception {
 		var expect = List.of(ServicesDTO.builder().city("Berlin").name("Hotel").build(),
 				ServicesDTO.builder().city("Berlin").name("Park").build());
@@ -184,16 +225,16 @@ class TravelPlanningIT {
 
 	@Test
 	@Sql(statements = {createTraveler, "INSERT INTO cities(id, name) VALUES (1, 'Kiev'), (2, 'Berlin')",
-			"INSERT INTO travel(id, user_id, travel_time, departure, destination) " +
-					"VALUES (1, 1, '2020-12-12 12:12:12', 'Berlin', 'Kiev')",
-			"INSERT INTO services(id, name, city) VALUES (1, 'Hotel', 'Kiev'), (2, 'Park', 'Kiev')",
+			"INSERT INTO travel(id, user_id, travel_time, departure_id, destination_id) " +
+					"VALUES (1, 1, '2020-12-12 12:12:12', 2, 1)",
+			"INSERT INTO services(id, name, city_id) VALUES (1, 'Hotel', 1), (2, 'Park', 1)",
 			"INSERT INTO travel_services(id, travel_id, service_id) VALUES (1, 1, 2)"})
 	void testBookServiceEndpoint() throws Exception {
 		var serviceRequest = new ServiceRequest("Hotel");
 		var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
 		var expect = TravelDTO.builder().departure("Berlin").destination("Kiev").travel_time(time)
-				.services(List.of(ServicesDTO.builder().name("Park").city("Kiev").build(),
-						ServicesDTO.builder().name("Hotel").city("Kiev").build())).build();
+				.services(List.of(ServicesDTO.builder().name("Hotel").city("Kiev").build(),
+						ServicesDTO.builder().name("Park").city("Kiev").build())).build();
 
 		var requestBuilder = post("/services/book")
 				.with(postProcessor)
@@ -220,9 +261,9 @@ class TravelPlanningIT {
 
 	@Test
 	@Sql(statements = {createTraveler, "INSERT INTO cities(id, name) VALUES (1, 'Kiev'), (2, 'Berlin')",
-			"INSERT INTO travel(id, user_id, travel_time, departure, destination) " +
-					"VALUES (1, 1, '2020-12-12 12:12:12', 'Berlin', 'Kiev')",
-			"INSERT INTO services(id, name, city) VALUES (2, 'Park', 'Kiev')",
+			"INSERT INTO travel(id, user_id, travel_time, departure_id, destination_id) " +
+					"VALUES (1, 1, '2020-12-12 12:12:12', 2, 1)",
+			"INSERT INTO services(id, name, city_id) VALUES (2, 'Park', 1)",
 			"INSERT INTO travel_services(id, travel_id, service_id) VALUES (1, 1, 2)"})
 	void testBookServiceEndpoint_NoService() throws Exception {
 		var serviceRequest = new ServiceRequest("Hotel");
@@ -238,8 +279,8 @@ class TravelPlanningIT {
 
 	@Test
 	@Sql(statements = {createTraveler, "INSERT INTO cities(id, name) VALUES (1, 'Kiev'), (2, 'Berlin')",
-			"INSERT INTO travel(id, user_id, travel_time, departure, destination) " +
-					"VALUES (1, 1, '2020-12-12 12:12:12', 'Berlin', 'Kiev')"})
+			"INSERT INTO travel(id, user_id, travel_time, departure_id, destination_id) " +
+					"VALUES (1, 1, '2020-12-12 12:12:12', 2, 1)"})
 	void testCompleteTravel() throws Exception {
 		var requestBuilder = post("/travel/complete").with(postProcessor);
 		mockMvc.perform(requestBuilder)
@@ -247,6 +288,22 @@ class TravelPlanningIT {
 				.andExpect(content().string("What a beautiful trip"));
 	}
 
+	@Test
+	@Sql(statements = createTraveler)
+	void testCredentialsCached() throws Exception {
+		var requestBuilder = post("/travel/complete").with(postProcessor);
+		mockMvc.perform(requestBuilder)
+				.andExpect(status().isBadRequest());
+		var hits = credentialsCache.getHits();
+
+		mockMvc.perform(requestBuilder)
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("You haven't planned a travel"));
+
+		assertThat(credentialsCache.getHits()).isEqualTo(hits + 1);
+		assertThat(credentialsCache.size()).isEqualTo(1);
+	}
+
 	@Test
 	@Sql(statements = createTraveler)
 	void testCompleteTravel_NoTravel() throws Exception {
@@ -260,9 +317,9 @@ class TravelPlanningIT {
 	@Sql(statements = {createAdmin, "INSERT INTO cities(id, name) VALUES (1, 'Kiev'), (2, 'Berlin')",
 			"INSERT INTO user(user_id, email, password, role) " +
 					"VALUES (2, 'misha2@gmail.com', '$2a$10$Hzdg8upvCxY8wqZAyq79Ou1szV6sS6Xy55GmDyOqgz8ZKbMsklZ1C', 0)",
-			"INSERT INTO travel(id, user_id, travel_time, departure, destination) " +
-					"VALUES (1, 1, '2020-12-12 12:12:12', 'Berlin', 'Kiev'), (2, 2, '2020-12-12 12:12:12', 'Kiev', 'Kiev')",
-			"INSERT INTO services(id, name, city) VALUES (1, 'Hotel', 'Kiev')",
+			"INSERT INTO travel(id, user_id, travel_time, departure_id, destination_id) " +
+					"VALUES (1, 1, '2020-12-12 12:12:12', 2, 1), (2, 2, '2020-12-12 12:12:12', 1, 1)",
+			"INSERT INTO services(id, name, city_id) VALUES (1, 'Hotel', 1)",
 			"INSERT INTO travel_services(id, travel_id, service_id) VALUES (1, 1, 1), (2, 2, 1)"})
 	void testGetTravels() throws Exception {
 		var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
@@ -282,9 +339,9 @@ class TravelPlanningIT {
 	@Sql(statements = {createAdmin, "INSERT INTO cities(id, name) VALUES (1, 'Kiev'), (2, 'Berlin')",
 			"INSERT INTO user(user_id, email, password, role) " +
 					"VALUES (2, 'misha2@gmail.com', '$2a$10$Hzdg8upvCxY8wqZAyq79Ou1szV6sS6Xy55GmDyOqgz8ZKbMsklZ1C', 0)",
-			"INSERT INTO travel(id, user_id, travel_time, departure, destination) " +
-					"VALUES (1, 1, '2020-12-12 12:12:12', 'Berlin', 'Kiev'), (2, 2, '2020-12-12 12:12:12', 'Kiev', 'Kiev')",
-			"INSERT INTO services(id, name, city) VALUES (1, 'Hotel', 'Kiev')",
+			"INSERT INTO travel(id, user_id, travel_time, departure_id, destination_id) " +
+					"VALUES (1, 1, '2020-12-12 12:12:12', 2, 1), (2, 2, '2020-12-12 12:12:12', 1, 1)",
+			"INSERT INTO services(id, name, city_id) VALUES (1, 'Hotel', 1)",
 			"INSERT INTO travel_services(id, travel_id, service_id) VALUES (1, 1, 1), (2, 2, 1)"})
 	void testDeleteTrips() throws Exception {
 		var deleteRequest = new DeleteRequest("Kiev", "Kiev");
@@ -322,7 +379,7 @@ class TravelPlanningIT {
 
 	@Test
 	@Sql(statements = {createAdmin, "INSERT INTO cities(id, name) VALUES (1, 'Kiev')",
-			"INSERT INTO services(id, name, city) VALUES (1, 'Hotel', 'Kiev')"})
+			"INSERT INTO services(id, name, city_id) VALUES (1, 'Hotel', 1)"})
 	void testAddService_AlreadyExists() throws Exception {
 		var addService = new AddServiceRequest("Hotel", "Kiev");
 
@@ -334,4 +391,145 @@ class TravelPlanningIT {
 				.andExpect(status().isBadRequest())
 				.andExpect(jsonPath("$.error").value("The service already exists"));
 	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED) //parallel creates must see committed data
+	void testCreateTravel_Concurrent() throws Exception {
+		var user = userRepository.save(User.builder().email("parallel@gmail.com").password("1234")
+				.role(Role.TRAVELER).build());
+		var city = citiesRepository.save(Cities.builder().name("Lviv").build());
+		var travelRequest = new TravelRequest("Lviv", "Lviv", LocalDateTime.of(2020, 12, 12, 12, 12, 12));
+		var threads = 8;
+		var executor = Executors.newFixedThreadPool(threads);
+		var start = new CountDownLatch(1);
+		var created = new AtomicInteger();
+		var rejected = new AtomicInteger();
+
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					try {
+						travelPlanningService.createTravel(travelRequest, user);
+						created.incrementAndGet();
+					} catch (TravelException e) {
+						rejected.incrementAndGet();
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+
+			assertThat(created.get()).isEqualTo(1);
+			assertThat(rejected.get()).isEqualTo(threads - 1);
+			assertThat(travelRepository.findTravelByUser(user)).isPresent();
+		} finally {
+			executor.shutdownNow();
+			travelRepository.findTravelByUser(user).ifPresent(travelRepository::delete);
+			userRepository.delete(user);
+			citiesRepository.delete(city);
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED) //parallel bookings must see committed data
+	void testBookService_Concurrent() throws Exception {
+		var user = userRepository.save(User.builder().email("booking@gmail.com").password("1234")
+				.role(Role.TRAVELER).build());
+		var city = citiesRepository.save(Cities.builder().name("Odesa").build());
+		var service = servicesRepository.save(Services.builder().name("Opera").city(city).build());
+		var travel = travelRepository.save(Travel.builder().user(user).departure(city).destination(city)
+				.travel_time(LocalDateTime.of(2020, 12, 12, 12, 12, 12)).build());
+		var threads = 8;
+		var executor = Executors.newFixedThreadPool(threads);
+		var start = new CountDownLatch(1);
+		var booked = new AtomicInteger();
+
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				boolean batch = i % 2 == 0;
+				futures.add(executor.submit(() -> {
+					start.await();
+					if (batch) {
+						var results = travelPlanningService.bookServices(
+								new BatchServiceRequest(List.of("Opera")), user).getResults();
+						if (results.get(0).getStatus() == BookingResultDTO.Status.BOOKED) {
+							booked.incrementAndGet();
+						}
+					} else {
+						travelPlanningService.bookService(new ServiceRequest("Opera"), user);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS); //a lost race must not surface as an error
+			}
+
+			assertThat(booked.get()).isLessThanOrEqualTo(1);
+			assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM travel_services WHERE travel_id = ?",
+					Integer.class, travel.getId())).isEqualTo(1);
+		} finally {
+			executor.shutdownNow();
+			jdbcTemplate.update("DELETE FROM travel_services WHERE travel_id = ?", travel.getId());
+			travelRepository.deleteById(travel.getId());
+			servicesRepository.delete(service);
+			userRepository.delete(user);
+			citiesRepository.delete(city);
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED) //the capacity must see committed bookings
+	void testSetCapacity_Concurrent() throws Exception {
+		var user = userRepository.save(User.builder().email("capacity@gmail.com").password("1234")
+				.role(Role.TRAVELER).build());
+		travelPlanningService.addService(new AddServiceRequest("Theatre", "Lutsk"));
+		var city = citiesRepository.findCitiesByName("Lutsk").orElseThrow();
+		var service = servicesRepository.findByName("Theatre").orElseThrow();
+		var travel = travelRepository.save(Travel.builder().user(user).departure(city).destination(city)
+				.travel_time(LocalDateTime.of(2020, 12, 12, 12, 12, 12)).build());
+		var date = travel.getTravel_time().toLocalDate();
+		var threads = 8;
+		var executor = Executors.newFixedThreadPool(threads);
+		var start = new CountDownLatch(1);
+
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				boolean booking = i == 0;
+				futures.add(executor.submit(() -> {
+					start.await();
+					if (booking) {
+						travelPlanningService.bookService(new ServiceRequest("Theatre"), user);
+					} else {
+						travelPlanningService.setCapacity(new CapacityRequest("Theatre", "Lutsk", date, 5));
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS); //a lost race must not surface as an error
+			}
+
+			//the booking is counted whether it came before or after the capacity was set
+			assertThat(jdbcTemplate.queryForList("SELECT remaining FROM service_capacity WHERE service_id = ?",
+					Integer.class, service.getId())).containsExactly(4);
+		} finally {
+			executor.shutdownNow();
+			jdbcTemplate.update("DELETE FROM service_capacity WHERE service_id = ?", service.getId());
+			jdbcTemplate.update("DELETE FROM travel_services WHERE travel_id = ?", travel.getId());
+			travelRepository.deleteById(travel.getId());
+			servicesRepository.delete(service);
+			userRepository.delete(user);
+			citiesRepository.delete(city);
+		}
+	}
 }
@@ -2,17 +2,23 @@ package com.travel.planning;
 
 import com.travel.planning.configuration.security.Role;
 import com.travel.planning.model.Cities;
+import com.travel.planning.model.ServiceCapacity;
 import com.travel.planning.model.Services;
 import com.travel.planning.model.Travel;
 import com.travel.planning.model.User;
 import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServiceCapacityRepository;
 import com.travel.planning.repository.ServicesRepository;
 import com.travel.planning.repository.TravelRepository;
 import com.travel.planning.repository.UserRepository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -24,9 +30,12 @@ import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -45,6 +54,8 @@ public class TravelPlanningRepositoryTest {
     TravelRepository travelRepository;
     @Autowired
     ServicesRepository servicesRepository;
+    @Autowired
+    ServiceCapacityRepository capacityRepository;
 
 
     @Autowired
@@ -147,9 +158,9 @@ public class TravelPlanningRepositoryTest {
     @Test
     @Sql(statements = {"INSERT INTO cities(id, name) VALUES (1, 'Kiev')",
             "INSERT INTO user(user_id, email, password, role) VALUES (1, 'misha@gmail.com', '1234', 0)",
-            "INSERT INTO travel(id, travel_time, user_id, departure, destination) " +
-                    "VALUES (1, '2020-12-12 12:12:12', 1, 'Kiev', 'Kiev')",
-            "INSERT INTO services(id, city, name) VALUES (1, 'Kiev', 'Hotel'), (2, 'Kiev', 'Park')",
+            "INSERT INTO travel(id, travel_time, user_id, departure_id, destination_id) " +
+                    "VALUES (1, '2020-12-12 12:12:12', 1, 1, 1)",
+            "INSERT INTO services(id, city_id, name) VALUES (1, 1, 'Hotel'), (2, 1, 'Park')",
             "INSERT INTO travel_services(id, service_id, travel_id) VALUES (1, 1, 1)"})
     void servicesRepository_FindAllByCity() {
         Cities city = Cities.builder().id(1L).name("Kiev").build();
@@ -199,7 +210,7 @@ public class TravelPlanningRepositoryTest {
 
     @Test
     @Sql(statements = {"INSERT INTO cities(id, name) VALUES (1, 'Kiev')",
-            "INSERT INTO services(id, city, name) VALUES (1, 'Kiev', 'Hotel'), (2, 'Kiev', 'Park')"})
+            "INSERT INTO services(id, city_id, name) VALUES (1, 1, 'Hotel'), (2, 1, 'Park')"})
     void servicesRepository_FindByName() {
         Services expect = Services.builder()
                 .id(1L)
@@ -219,7 +230,7 @@ public class TravelPlanningRepositoryTest {
 
     @Test
     @Sql(statements = {"INSERT INTO cities(id, name) VALUES (1, 'Kiev')",
-            "INSERT INTO services(id, city, name) VALUES (1, 'Kiev', 'Hotel'), (2, 'Kiev', 'Park')"})
+            "INSERT INTO services(id, city_id, name) VALUES (1, 1, 'Hotel'), (2, 1, 'Park')"})
     void servicesRepository_FindByNameAndCity() {
         Cities city = Cities.builder().id(1L).name("Kiev").build();
         Services expect = Services.builder()
@@ -268,9 +279,9 @@ public class TravelPlanningRepositoryTest {
     @Sql(statements = {"INSERT INTO cities(id, name) VALUES (1, 'Kiev')",
             "INSERT INTO user(user_id, email, password, role) VALUES (1, 'misha@gmail.com', '1234', 0), " +
                     "(2, 'misha2@gmail.com', '1234', 1)",
-            "INSERT INTO travel(id, travel_time, user_id, departure, destination) " +
-                    "VALUES (1, '2020-12-12 12:12:12', 1, 'Kiev', 'Kiev'), (2, '2020-12-12 12:12:12', 2, 'Kiev', 'Kiev')",
-            "INSERT INTO services(id, city, name) VALUES (1, 'Kiev', 'Hotel'), (2, 'Kiev', 'Park')",
+            "INSERT INTO travel(id, travel_time, user_id, departure_id, destination_id) " +
+                    "VALUES (1, '2020-12-12 12:12:12', 1, 1, 1), (2, '2020-12-12 12:12:12', 2, 1, 1)",
+            "INSERT INTO services(id, city_id, name) VALUES (1, 1, 'Hotel'), (2, 1, 'Park')",
             "INSERT INTO travel_services(id, service_id, travel_id) VALUES (1, 1, 1)"})
     void travelRepository_FindTravelByUser() {
         Cities city = Cities.builder().id(1L).name("Kiev").build();
@@ -292,7 +303,7 @@ public class TravelPlanningRepositoryTest {
                 .user(user)
                 .destination(city)
                 .departure(city)
-                .services(List.of(service))
+                .services(Set.of(service))
                 .build();
 
         Optional<Travel> actual = travelRepository.findTravelByUser(user);
@@ -314,8 +325,8 @@ public class TravelPlanningRepositoryTest {
     @Sql(statements = {"INSERT INTO cities(id, name) VALUES (1, 'Kiev')",
             "INSERT INTO user(user_id, email, password, role) VALUES (1, 'misha@gmail.com', '1234', 0), " +
                     "(2, 'misha2@gmail.com', '1234', 1)",
-            "INSERT INTO travel(id, travel_time, user_id, departure, destination) " +
-                    "VALUES (1, '2020-12-12 12:12:12', 1, 'Kiev', 'Kiev'), (2, '2020-12-12 12:12:12', 2, 'Kiev', 'Kiev')"})
+            "INSERT INTO travel(id, travel_time, user_id, departure_id, destination_id) " +
+                    "VALUES (1, '2020-12-12 12:12:12', 1, 1, 1), (2, '2020-12-12 12:12:12', 2, 1, 1)"})
     void travelRepository_FindAllByDeparture() {
         Cities city = Cities.builder().id(1L).name("Kiev").build();
 
@@ -353,8 +364,8 @@ public class TravelPlanningRepositoryTest {
     @Sql(statements = {"INSERT INTO cities(id, name) VALUES (1, 'Kiev'), (2, 'Warsaw')",
             "INSERT INTO user(user_id, email, password, role) VALUES (1, 'misha@gmail.com', '1234', 0), " +
                     "(2, 'misha2@gmail.com', '1234', 1)",
-            "INSERT INTO travel(id, travel_time, user_id, departure, destination) " +
-                    "VALUES (1, '2020-12-12 12:12:12', 1, 'Kiev', 'Warsaw'), (2, '2020-12-12 12:12:12', 2, 'Kiev', 'Kiev')"})
+            "INSERT INTO travel(id, travel_time, user_id, departure_id, destination_id) " +
+                    "VALUES (1, '2020-12-12 12:12:12', 1, 1, 2), (2, '2020-12-12 12:12:12', 2, 1, 1)"})
     void travelRepository_FindAllByDestination() {
         Cities city = Cities.builder().id(2L).name("Warsaw").build();
         Travel expectOne = Travel.builder()
@@ -377,4 +388,116 @@ public class TravelPlanningRepositoryTest {
                 .isEqualTo(expect);
         assertThat(actual.get(0).getServices()).isEmpty();
     }
+
+    @Test
+    @Sql(statements = {"INSERT INTO cities(id, name) VALUES (1, 'Kiev'), (2, 'Warsaw')",
+            "INSERT INTO user(user_id, email, password, role) VALUES (1, 'misha@gmail.com', '1234', 0), " +
+                    "(2, 'misha2@gmail.com', '1234', 1), (3, 'misha3@gmail.com', '1234', 0)",
+            "INSERT INTO travel(id, travel_time, user_id, departure_id, destination_id) " +
+                    "VALUES (1, '2020-12-12 12:12:12', 1, 1, 2)",
+            "INSERT INTO services(id, city_id, name) VALUES (1, 2, 'Hotel'), (2, 1, 'Park')",
+            "INSERT INTO travel_services(id, service_id, travel_id) VALUES (1, 1, 1), (2, 2, 1)"})
+    void travelRepository_FindAllWithServices_ConstantStatements() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<Travel> single = travelRepository.findAllWithServices();
+        single.forEach(travel -> travel.getServices().forEach(service -> service.getCity().getName()));
+        long singleCount = statistics.getPrepareStatementCount();
+
+        entityManager.getEntityManager().createNativeQuery("INSERT INTO cities(id, name) VALUES (3, 'Berlin')")
+                .executeUpdate();
+        entityManager.getEntityManager().createNativeQuery("INSERT INTO services(id, city_id, name) " +
+                "VALUES (3, 3, 'Museum')").executeUpdate();
+        entityManager.getEntityManager().createNativeQuery("INSERT INTO travel(id, travel_time, user_id, " +
+                "departure_id, destination_id) VALUES (2, '2020-12-12 12:12:12', 2, 2, 3), " +
+                "(3, '2020-12-12 12:12:12', 3, 3, 1)").executeUpdate();
+        entityManager.getEntityManager().createNativeQuery("INSERT INTO travel_services(id, service_id, travel_id) " +
+                "VALUES (3, 2, 2), (4, 3, 2), (5, 1, 3), (6, 3, 3)").executeUpdate();
+        entityManager.clear(); //to clear cache
+
+        statistics.clear();
+        List<Travel> many = travelRepository.findAllWithServices();
+        many.forEach(travel -> travel.getServices().forEach(service -> service.getCity().getName()));
+        long manyCount = statistics.getPrepareStatementCount();
+
+        assertThat(single).hasSize(1);
+        assertThat(many).hasSize(3);
+        assertThat(single.get(0).getServices()).hasSize(2);
+        assertThat(singleCount).isEqualTo(1);
+        assertThat(manyCount).isEqualTo(singleCount);
+    }
+
+    @Test
+    @Sql(statements = {"INSERT INTO cities(id, name) VALUES (1, 'Kiev'), (2, 'Warsaw')",
+            "INSERT INTO user(user_id, email, password, role) VALUES (1, 'misha@gmail.com', '1234', 0), " +
+                    "(2, 'misha2@gmail.com', '1234', 1), (3, 'misha3@gmail.com', '1234', 0)",
+            "INSERT INTO travel(id, travel_time, user_id, departure_id, destination_id) " +
+                    "VALUES (1, '2020-12-12 12:12:12', 1, 1, 2), " +
+                    "(2, '2020-12-12 12:12:12', 2, 2, 2), (3, '2020-12-12 12:12:12', 3, 2, 1)",
+            "INSERT INTO services(id, city_id, name) VALUES (1, 2, 'Hotel')",
+            "INSERT INTO travel_services(id, service_id, travel_id) VALUES (1, 1, 1), (2, 1, 2)"})
+    void travelRepository_BulkDelete() {
+        List<Long> ids = travelRepository.findIdsByDepartureOrDestination(0L, 1L, 1L,
+                Limit.of(10));
+        assertThat(ids).containsExactly(1L, 3L);
+
+        assertThat(travelRepository.deleteServicesByTravelIdIn(ids)).isEqualTo(1);
+        travelRepository.deleteAllByIdInBatch(ids);
+        entityManager.clear(); //to clear cache
+
+        assertThat(travelRepository.findAll())
+                .extracting(Travel::getId)
+                .containsExactly(2L);
+        assertThat(travelRepository.findById(2L).orElseThrow().getServices()).hasSize(1);
+    }
+
+    @Test
+    @Sql(statements = {"INSERT INTO cities(id, name) VALUES (1, 'Warsaw')",
+            "INSERT INTO user(user_id, email, password, role) VALUES (1, 'misha@gmail.com', '1234', 0)",
+            "INSERT INTO travel(id, travel_time, user_id, departure_id, destination_id) " +
+                    "VALUES (1, '2020-12-12 12:12:12', 1, 1, 1)",
+            "INSERT INTO services(id, city_id, name) VALUES (1, 1, 'Hotel'), (2, 1, 'Park'), " +
+                    "(3, 1, 'Zoo')",
+            "INSERT INTO travel_services(id, service_id, travel_id) VALUES (1, 2, 1)"})
+    void travelRepository_InsertServices() {
+        assertThat(travelRepository.insertServices(1L, List.of(1L, 2L, 3L))).containsExactly(1, 0, 1);
+        assertThat(travelRepository.insertService(1L, 1L)).isZero();
+        entityManager.clear(); //to clear cache
+
+        assertThat(travelRepository.findById(1L).orElseThrow().getServices())
+                .extracting(Services::getName)
+                .containsExactly("Hotel", "Park", "Zoo");
+    }
+
+    @Test
+    @Sql(statements = {"INSERT INTO cities(id, name) VALUES (1, 'Warsaw')",
+            "INSERT INTO user(user_id, email, password, role) VALUES (1, 'misha@gmail.com', '1234', 0)",
+            "INSERT INTO travel(id, travel_time, user_id, departure_id, destination_id) " +
+                    "VALUES (1, '2020-12-12 12:12:12', 1, 1, 1)",
+            "INSERT INTO services(id, city_id, name) VALUES (1, 1, 'Hotel'), (2, 1, 'Park')",
+            "INSERT INTO travel_services(id, service_id, travel_id) VALUES (1, 1, 1)",
+            "INSERT INTO service_capacity(id, service_id, service_date, capacity, remaining) " +
+                    "VALUES (1, 1, '2020-12-12', 2, 1)"})
+    void capacityRepository_Reserve() {
+        var date = LocalDate.of(2020, 12, 12);
+
+        assertThat(capacityRepository.countBookings(1L, date)).isEqualTo(1);
+        assertThat(capacityRepository.reserve(1L, date)).isEqualTo(1);
+        assertThat(capacityRepository.reserve(1L, date)).isZero();
+        assertThat(capacityRepository.reserve(2L, date)).isZero();
+        assertThat(capacityRepository.reserveAll(List.of(1L, 2L), date)).containsExactly(0, 0);
+        assertThat(capacityRepository.findServiceIdsByDate(List.of(1L, 2L), date)).containsExactly(1L);
+
+        // two places are booked, so the capacity cannot go below two
+        assertThat(capacityRepository.resize(1L, date, 1)).isZero();
+        assertThat(capacityRepository.resize(1L, date, 5)).isEqualTo(1);
+        capacityRepository.releaseAll(date, Map.of(1L, 1, 2L, 1));
+        entityManager.clear(); //to clear cache
+
+        assertThat(capacityRepository.findById(1L).orElseThrow())
+                .extracting(ServiceCapacity::getCapacity, ServiceCapacity::getRemaining)
+                .containsExactly(5, 4);
+    }
 }
@@ -2,6 +2,8 @@ package com.travel.planning;
 
 import com.travel.planning.configuration.security.Role;
 import com.travel.planning.dto.request.AddServiceRequest;
+import com.travel.planning.dto.request.BatchServiceRequest;
+import com.travel.planning.dto.request.CapacityRequest;
 import com.travel.planning.dto.request.DeleteRequest;
 import com.travel.planning.dto.request.ServiceRequest;
 import com.travel.planning.dto.request.TravelRequest;
@@ -9,27 +11,56 @@ import com.travel.planning.dto.response.*;
 import com.travel.planning.exception.ServicesException;
 import com.travel.planning.exception.TravelException;
 import com.travel.planning.model.Cities;
+import com.travel.planning.model.ServiceCapacity;
 import com.travel.planning.model.Services;
 import com.travel.planning.model.Travel;
 import com.travel.planning.model.User;
 import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServiceCapacityRepository;
 import com.travel.planning.repository.ServicesRepository;
 import com.travel.planning.repository.TravelRepository;
+import com.travel.planning.repository.TravelRow;
+import com.travel.planning.service.CityRegistry;
+import com.travel.planning.service.SearchIndex;
+import com.travel.planning.service.ServicesCatalogCache;
 import com.travel.planning.service.TravelPlanningService;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.hibernate.exception.ConstraintViolationException;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,10 +71,20 @@ public class TravelPlanningServiceTest {
     ServicesRepository servicesRepository;
     @Mock
     TravelRepository travelRepository;
+    @Mock
+    ServiceCapacityRepository capacityRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
 
-    @InjectMocks
     TravelPlanningService travelPlanningService;
 
+    @BeforeEach
+    void setUp() {
+        travelPlanningService = new TravelPlanningService(citiesRepository, servicesRepository, travelRepository,
+                capacityRepository, new CityRegistry(citiesRepository), new ServicesCatalogCache(16),
+                new SearchIndex(citiesRepository, servicesRepository), new TransactionTemplate(transactionManager));
+    }
+
     @Test
     void testCreateTravel() {
         var city = "Kiev";
@@ -65,6 +106,33 @@ public class TravelPlanningServiceTest {
                 .isEqualTo(expect);
     }
 
+    @Test
+    void testCreateTravel_CitiesFromRegistry() {
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+        var travelRequest = new TravelRequest("kiev", "BERLIN", time);
+        var user = User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build();
+        var cityRegistry = new CityRegistry(citiesRepository);
+        travelPlanningService = new TravelPlanningService(citiesRepository, servicesRepository, travelRepository,
+                capacityRepository, cityRegistry, new ServicesCatalogCache(16),
+                new SearchIndex(citiesRepository, servicesRepository), new TransactionTemplate(transactionManager));
+
+        var expect = TravelDTO.builder().departure("Kiev").destination("Berlin").travel_time(time).build();
+
+        when(citiesRepository.findAll())
+                .thenReturn(List.of(Cities.builder().id(1L).name("Kiev").build(),
+                        Cities.builder().id(2L).name("Berlin").build()));
+        cityRegistry.reload();
+
+        assertThat(travelPlanningService.createTravel(travelRequest, user))
+                .isEqualTo(expect);
+        verify(citiesRepository, never()).findCitiesByName(any());
+    }
+
     @Test
     void testReplenishAccount_AlreadyPlanned() {
         var city = "Kiev";
@@ -77,14 +145,51 @@ public class TravelPlanningServiceTest {
                 .role(Role.TRAVELER)
                 .build();
 
-        when(travelRepository.findTravelByUser(user))
-                .thenReturn(Optional.of(new Travel()));
+        when(citiesRepository.findCitiesByName(city))
+                .thenReturn(Optional.ofNullable(Cities.builder().name(city).build()));
+        when(travelRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry",
+                        new ConstraintViolationException("Duplicate entry", null, "travel.uk_travel_user")));
+
+        assertThatThrownBy(() -> travelPlanningService.createTravel(travelRequest, user))
+                .isInstanceOf(TravelException.class)
+                .hasMessage("You have already planned your travel");
+    }
+
+    @Test
+    void testReplenishAccount_AlreadyPlannedNoConstraintName() {
+        var city = "Kiev";
+        var travelRequest = new TravelRequest(city, city, LocalDateTime.of(2020, 12, 12, 12, 12, 12));
+        var user = User.builder().user_id(1L).email("misha@gmail.com").role(Role.TRAVELER).build();
+
+        when(citiesRepository.findCitiesByName(city))
+                .thenReturn(Optional.ofNullable(Cities.builder().name(city).build()));
+        when(travelRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry", new ConstraintViolationException(
+                        "Duplicate entry", new SQLException("Duplicate entry", "23000", 1062), null)));
 
         assertThatThrownBy(() -> travelPlanningService.createTravel(travelRequest, user))
                 .isInstanceOf(TravelException.class)
                 .hasMessage("You have already planned your travel");
     }
 
+    @Test
+    void testReplenishAccount_OtherConstraint() {
+        var city = "Kiev";
+        var travelRequest = new TravelRequest(city, city, LocalDateTime.of(2020, 12, 12, 12, 12, 12));
+        var user = User.builder().user_id(1L).email("misha@gmail.com").role(Role.TRAVELER).build();
+        var error = new DataIntegrityViolationException("Duplicate entry", new ConstraintViolationException(
+                "Duplicate entry", new SQLException("Duplicate entry", "23000", 1062), "travel.PRIMARY"));
+
+        when(citiesRepository.findCitiesByName(city))
+                .thenReturn(Optional.ofNullable(Cities.builder().name(city).build()));
+        when(travelRepository.saveAndFlush(any()))
+                .thenThrow(error);
+
+        assertThatThrownBy(() -> travelPlanningService.createTravel(travelRequest, user))
+                .isSameAs(error);
+    }
+
     @Test
     void testReplenishAccount_NoCity() {
         var city = "Kiev";
@@ -132,6 +237,38 @@ public class TravelPlanningServiceTest {
                 .isEqualTo(expect);
     }
 
+    @Test
+    void testGetServices_Cached() {
+        var user = User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build();
+        var city = Cities.builder().name("Kiev").build();
+
+        var expect = List.of(ServicesDTO.builder().name("Hotel").city("Kiev").build());
+
+        when(travelRepository.findTravelByUser(user))
+                .thenReturn(Optional.ofNullable(Travel.builder().destination(city).build()));
+        when(servicesRepository.findAllByCity(city))
+                .thenReturn(List.of(Services.builder().name("Hotel").city(city).build()));
+
+        travelPlanningService.getServices(user);
+        assertThat(travelPlanningService.getServices(user))
+                .isEqualTo(expect);
+        verify(servicesRepository, times(1)).findAllByCity(city);
+
+        when(servicesRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(citiesRepository.findCitiesByName("Kiev"))
+                .thenReturn(Optional.of(city));
+        travelPlanningService.addService(new AddServiceRequest("Park", "Kiev"));
+
+        travelPlanningService.getServices(user);
+        verify(servicesRepository, times(2)).findAllByCity(city);
+    }
+
     @Test
     void testGetServices_NoServices() {
         var user = User.builder()
@@ -168,17 +305,72 @@ public class TravelPlanningServiceTest {
                                 ServicesDTO.builder().city(cityB.getName()).name("Park").build()))
                         .build();
 
+        var hotel = Services.builder().id(1L).city(cityB).name("Hotel").build();
+        var park = Services.builder().id(2L).city(cityB).name("Park").build();
+
+        // the services collection as it is lazily read after the join row insert
         when(travelRepository.findTravelByUser(user))
                 .thenReturn(Optional.ofNullable(
                         Travel.builder()
-                                .departure(cityK).destination(cityB).travel_time(time).user(user)
-                                .services(new LinkedList<>(List.of(Services.builder().city(cityB).name("Hotel").build())))
+                                .id(1L).departure(cityK).destination(cityB).travel_time(time).user(user)
+                                .services(new LinkedHashSet<>(List.of(hotel, park)))
                                 .build()));
         when(servicesRepository.findByName("Park"))
-                .thenReturn(Optional.ofNullable(Services.builder().city(cityB).name("Park").build()));
+                .thenReturn(Optional.of(park));
+        when(travelRepository.insertService(1L, 2L)).thenReturn(1);
+        when(capacityRepository.reserve(2L, time.toLocalDate())).thenReturn(1);
 
         assertThat(travelPlanningService.bookService(serviceRequest, user))
                 .isEqualTo(expect);
+        verify(travelRepository).insertService(1L, 2L);
+        verify(travelRepository, never()).save(any());
+    }
+
+    @Test
+    void testBookService_FullyBooked() {
+        var user = User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build();
+        var city = Cities.builder().name("Berlin").build();
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+        var hotel = Services.builder().id(1L).city(city).name("Hotel").build();
+
+        when(travelRepository.findTravelByUser(user))
+                .thenReturn(Optional.of(Travel.builder()
+                        .id(1L).departure(city).destination(city).travel_time(time).user(user).build()));
+        when(servicesRepository.findByName("Hotel")).thenReturn(Optional.of(hotel));
+        when(travelRepository.insertService(1L, 1L)).thenReturn(1);
+        when(capacityRepository.reserve(1L, time.toLocalDate())).thenReturn(0);
+        when(capacityRepository.existsByServiceIdAndDate(1L, time.toLocalDate())).thenReturn(true);
+
+        assertThatThrownBy(() -> travelPlanningService.bookService(new ServiceRequest("Hotel"), user))
+                .isInstanceOf(ServicesException.class)
+                .hasMessage("The service is fully booked on that date");
+    }
+
+    @Test
+    void testBookService_AlreadyBooked() {
+        var user = User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build();
+        var city = Cities.builder().name("Berlin").build();
+        var hotel = Services.builder().id(1L).city(city).name("Hotel").build();
+
+        when(travelRepository.findTravelByUser(user))
+                .thenReturn(Optional.of(Travel.builder()
+                        .id(1L).departure(city).destination(city).travel_time(LocalDateTime.of(2020, 12, 12, 12, 12))
+                        .user(user).services(Set.of(hotel)).build()));
+        when(servicesRepository.findByName("Hotel")).thenReturn(Optional.of(hotel));
+        when(travelRepository.insertService(1L, 1L)).thenReturn(0);
+
+        travelPlanningService.bookService(new ServiceRequest("Hotel"), user);
+        verify(capacityRepository, never()).reserve(any(), any());
     }
 
     @Test
@@ -214,6 +406,124 @@ public class TravelPlanningServiceTest {
                 .hasMessage("There is no service with that name");
     }
 
+    @Test
+    void testBookServices() {
+        var request = new BatchServiceRequest(List.of("Hotel", "Park", "Zoo", "Museum", "hotel", "Bar"));
+        var user = User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build();
+        var cityB = Cities.builder().name("Berlin").build();
+        var cityK = Cities.builder().name("Kiev").build();
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+        var hotel = Services.builder().id(1L).city(cityB).name("Hotel").build();
+        var park = Services.builder().id(2L).city(cityB).name("Park").build();
+        var museum = Services.builder().id(3L).city(cityK).name("Museum").build();
+        var bar = Services.builder().id(4L).city(cityB).name("Bar").build();
+
+        when(travelRepository.findTravelByUser(user))
+                .thenReturn(Optional.of(Travel.builder()
+                        .id(1L).departure(cityK).destination(cityB).travel_time(time).user(user)
+                        .services(new LinkedHashSet<>(List.of(hotel, park, bar)))
+                        .build()));
+        when(servicesRepository.findAllByNameIn(Set.copyOf(request.getNames())))
+                .thenReturn(List.of(hotel, park, museum, bar));
+        when(travelRepository.insertServices(1L, List.of(1L, 2L, 4L)))
+                .thenReturn(new int[]{1, 0, 1});
+        when(capacityRepository.reserveAll(List.of(1L, 4L), time.toLocalDate()))
+                .thenReturn(new int[]{1, 0});
+
+        var actual = travelPlanningService.bookServices(request, user);
+
+        assertThat(actual.getTravel().getServices()).extracting(ServicesDTO::getName)
+                .containsExactly("Hotel", "Park", "Bar");
+        assertThat(actual.getResults()).extracting(BookingResultDTO::getName, BookingResultDTO::getStatus)
+                .containsExactly(
+                        tuple("Hotel", BookingResultDTO.Status.BOOKED),
+                        tuple("Park", BookingResultDTO.Status.ALREADY_BOOKED),
+                        tuple("Zoo", BookingResultDTO.Status.NOT_FOUND),
+                        tuple("Museum", BookingResultDTO.Status.WRONG_CITY),
+                        tuple("hotel", BookingResultDTO.Status.DUPLICATE),
+                        tuple("Bar", BookingResultDTO.Status.BOOKED));
+        verify(travelRepository, times(1)).insertServices(anyLong(), anyList());
+        verify(travelRepository, never()).deleteServices(any(), any());
+    }
+
+    @Test
+    void testBookServices_FullyBooked() {
+        var request = new BatchServiceRequest(List.of("Hotel", "Park"));
+        var user = User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build();
+        var city = Cities.builder().name("Berlin").build();
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+        var hotel = Services.builder().id(1L).city(city).name("Hotel").build();
+        var park = Services.builder().id(2L).city(city).name("Park").build();
+
+        when(travelRepository.findTravelByUser(user))
+                .thenReturn(Optional.of(Travel.builder()
+                        .id(1L).departure(city).destination(city).travel_time(time).user(user)
+                        .services(new LinkedHashSet<>(List.of(park)))
+                        .build()));
+        when(servicesRepository.findAllByNameIn(Set.copyOf(request.getNames())))
+                .thenReturn(List.of(hotel, park));
+        when(travelRepository.insertServices(1L, List.of(1L, 2L)))
+                .thenReturn(new int[]{1, 1});
+        when(capacityRepository.reserveAll(List.of(1L, 2L), time.toLocalDate()))
+                .thenReturn(new int[]{0, 0});
+        // the park is not limited on that date
+        when(capacityRepository.findServiceIdsByDate(List.of(1L, 2L), time.toLocalDate()))
+                .thenReturn(List.of(1L));
+
+        assertThat(travelPlanningService.bookServices(request, user).getResults())
+                .extracting(BookingResultDTO::getName, BookingResultDTO::getStatus)
+                .containsExactly(
+                        tuple("Hotel", BookingResultDTO.Status.FULLY_BOOKED),
+                        tuple("Park", BookingResultDTO.Status.BOOKED));
+        verify(travelRepository).deleteServices(1L, Set.of(1L));
+    }
+
+    @Test
+    void testBookServices_NothingToBook() {
+        var request = new BatchServiceRequest(List.of("Zoo"));
+        var user = User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build();
+        var city = Cities.builder().name("Berlin").build();
+
+        when(travelRepository.findTravelByUser(user))
+                .thenReturn(Optional.of(Travel.builder().id(1L).departure(city).destination(city)
+                        .services(Set.of()).build()));
+
+        assertThat(travelPlanningService.bookServices(request, user).getResults())
+                .extracting(BookingResultDTO::getStatus)
+                .containsExactly(BookingResultDTO.Status.NOT_FOUND);
+        verify(travelRepository, never()).insertServices(anyLong(), anyList());
+    }
+
+    @Test
+    void testBookServices_NoTrip() {
+        var request = new BatchServiceRequest(List.of("Hotel"));
+        var user = User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build();
+
+        assertThatThrownBy(() -> travelPlanningService.bookServices(request, user))
+                .isInstanceOf(TravelException.class)
+                .hasMessage("You haven't planned a travel");
+    }
+
     @Test
     void testCompleteTravel() {
         var user = User.builder()
@@ -230,6 +540,28 @@ public class TravelPlanningServiceTest {
                 .isEqualTo(true);
     }
 
+    @Test
+    void testCompleteTravel_ReleasesPlaces() {
+        var user = User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build();
+        var city = Cities.builder().name("Berlin").build();
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+
+        when(travelRepository.findTravelByUser(user))
+                .thenReturn(Optional.of(Travel.builder()
+                        .id(1L).departure(city).destination(city).travel_time(time).user(user)
+                        .services(Set.of(Services.builder().id(1L).city(city).name("Hotel").build(),
+                                Services.builder().id(2L).city(city).name("Park").build()))
+                        .build()));
+
+        assertThat(travelPlanningService.completeTravel(user)).isTrue();
+        verify(capacityRepository).releaseAll(time.toLocalDate(), Map.of(1L, 1, 2L, 1));
+    }
+
     @Test
     void testCompleteTravel_NoTravel() {
         var user = User.builder()
@@ -243,6 +575,97 @@ public class TravelPlanningServiceTest {
                 .isEqualTo(false);
     }
 
+    @Test
+    void testGetTravels() {
+        var cityK = Cities.builder().name("Kiev").build();
+        var cityB = Cities.builder().name("Berlin").build();
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+
+        var expect = List.of(TravelDTO.builder()
+                .departure(cityK.getName()).destination(cityB.getName()).travel_time(time)
+                .services(List.of(ServicesDTO.builder().city(cityB.getName()).name("Hotel").build()))
+                .build());
+
+        when(travelRepository.findAllWithServices())
+                .thenReturn(List.of(Travel.builder()
+                        .departure(cityK).destination(cityB).travel_time(time)
+                        .services(Set.of(Services.builder().city(cityB).name("Hotel").build()))
+                        .build()));
+
+        assertThat(travelPlanningService.getTravels())
+                .isEqualTo(expect);
+    }
+
+    @Test
+    void testGetTravelsPage() {
+        var city = Cities.builder().name("Kiev").build();
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+        var travel = Travel.builder().departure(city).destination(city).travel_time(time).services(Set.of()).build();
+        var travelDTO = TravelDTO.builder().departure("Kiev").destination("Kiev").travel_time(time)
+                .services(List.of()).build();
+
+        when(travelRepository.findIdsAfter(5L, Limit.of(2)))
+                .thenReturn(List.of(6L, 8L));
+        when(travelRepository.findAllWithServicesByIdIn(List.of(6L, 8L)))
+                .thenReturn(List.of(travel, travel));
+
+        assertThat(travelPlanningService.getTravels(5L, 2))
+                .isEqualTo(TravelPageDTO.builder().travels(List.of(travelDTO, travelDTO)).next(8L).build());
+    }
+
+    @Test
+    void testGetTravelsPage_LastPage() {
+        when(travelRepository.findIdsAfter(0L, Limit.of(10)))
+                .thenReturn(List.of());
+
+        assertThat(travelPlanningService.getTravels(null, 10))
+                .isEqualTo(TravelPageDTO.builder().travels(List.of()).build());
+    }
+
+    @Test
+    void testGetTravelsPage_WrongSize() {
+        assertThatThrownBy(() -> travelPlanningService.getTravels(null, 0))
+                .isInstanceOf(TravelException.class)
+                .hasMessage("Page size must be between 1 and 1000");
+    }
+
+    @Test
+    void testStreamTravels() {
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+
+        var expect = List.of(
+                TravelDTO.builder().departure("Kiev").destination("Berlin").travel_time(time)
+                        .services(List.of(ServicesDTO.builder().name("Hotel").city("Berlin").build(),
+                                ServicesDTO.builder().name("Park").city("Berlin").build()))
+                        .build(),
+                TravelDTO.builder().departure("Berlin").destination("Kiev").travel_time(time)
+                        .services(List.of())
+                        .build());
+
+        when(travelRepository.streamAllRows())
+                .thenReturn(Stream.of(row(1L, "Kiev", "Berlin", time, "Hotel", "Berlin"),
+                        row(1L, "Kiev", "Berlin", time, "Park", "Berlin"),
+                        row(2L, "Berlin", "Kiev", time, null, null)));
+
+        List<TravelDTO> actual = new ArrayList<>();
+        travelPlanningService.streamTravels(actual::add);
+
+        assertThat(actual)
+                .isEqualTo(expect);
+    }
+
+    private static TravelRow row(Long id, String departure, String destination, LocalDateTime time,
+                                 String service, String serviceCity) {
+        return new TravelRow() {
+            public Long getId() { return id; }
+            public String getDeparture() { return departure; }
+            public String getDestination() { return destination; }
+            public LocalDateTime getTravelTime() { return time; }
+            public String getService() { return service; }
+            public String getServiceCity() { return serviceCity; }
+        };
+    }
+
     @Test
     void testDeleteTrips() {
         var deleteRequest = new DeleteRequest("Kiev", "Kiev");
@@ -252,8 +675,8 @@ public class TravelPlanningServiceTest {
                 .password("1234")
                 .role(Role.TRAVELER)
                 .build();
-        var cityK = Cities.builder().name("Kiev").build();
-        var cityB = Cities.builder().name("Berlin").build();
+        var cityK = Cities.builder().id(1L).name("Kiev").build();
+        var cityB = Cities.builder().id(2L).name("Berlin").build();
         var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
 
         var expect = List.of(TravelDTO.builder()
@@ -261,29 +684,67 @@ public class TravelPlanningServiceTest {
                 .services(List.of(ServicesDTO.builder().city(cityB.getName()).name("Hotel").build()))
                 .build());
 
-        when(travelRepository.findAllByDeparture(cityK))
+        when(citiesRepository.findCitiesByName("Kiev"))
+                .thenReturn(Optional.of(cityK));
+        when(travelRepository.findIdsByDepartureOrDestination(0L, 1L, 1L,
+                Limit.of(TravelPlanningService.DELETE_CHUNK_SIZE)))
+                .thenReturn(List.of(1L));
+        when(travelRepository.findAllWithServicesByIdIn(List.of(1L)))
                 .thenReturn(List.of(Travel.builder()
                         .departure(cityK).destination(cityB).user(user).travel_time(time)
-                        .services(List.of(Services.builder().city(cityB).name("Hotel").build()))
+                        .services(Set.of(Services.builder().city(cityB).name("Hotel").build()))
                         .build()));
-        when(travelRepository.findAllByDestination(cityK))
-                .thenReturn(List.of());
 
         assertThat(travelPlanningService.deleteTrips(deleteRequest))
                 .isEqualTo(expect);
     }
 
+    @Test
+    void testDeleteTrips_Chunked() {
+        var city = Cities.builder().id(1L).name("Kiev").build();
+        var time = LocalDateTime.of(2020, 12, 12, 12, 12, 12);
+        var chunk = Limit.of(TravelPlanningService.DELETE_CHUNK_SIZE);
+        var firstIds = LongStream.rangeClosed(1, TravelPlanningService.DELETE_CHUNK_SIZE)
+                .boxed().toList();
+        var travel = Travel.builder().departure(city).destination(city).travel_time(time).services(Set.of()).build();
+
+        when(citiesRepository.findCitiesByName("Kiev"))
+                .thenReturn(Optional.of(city));
+        when(travelRepository.findIdsByDepartureOrDestination(0L, 1L, null, chunk))
+                .thenReturn(firstIds);
+        when(travelRepository.findAllWithServicesByIdIn(firstIds))
+                .thenReturn(firstIds.stream().map(id -> travel).toList());
+        when(travelRepository.findIdsByDepartureOrDestination((long) TravelPlanningService.DELETE_CHUNK_SIZE,
+                1L, null, chunk))
+                .thenReturn(List.of(1000L));
+        when(travelRepository.findAllWithServicesByIdIn(List.of(1000L)))
+                .thenReturn(List.of(travel));
+
+        assertThat(travelPlanningService.deleteTrips(new DeleteRequest("Kiev", null)))
+                .hasSize(TravelPlanningService.DELETE_CHUNK_SIZE + 1);
+        verify(travelRepository).deleteServicesByTravelIdIn(firstIds);
+        verify(travelRepository).deleteAllByIdInBatch(firstIds);
+        verify(travelRepository).deleteAllByIdInBatch(List.of(1000L));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testDeleteTrips_UnknownCities() {
+        assertThat(travelPlanningService.deleteTrips(new DeleteRequest("Atlantis", null)))
+                .isEmpty();
+        verifyNoInteractions(travelRepository, transactionManager);
+    }
+
     @Test
     void testAddService() {
         var addService = new AddServiceRequest("Park", "Kiev");
         var city = Cities.builder().name("Kiev").build();
-        var service = Services.builder().name("Park").city(city).build();
         var expect = ServicesDTO.builder().name("Park").city("Kiev").build();
 
         when(citiesRepository.save(city))
                 .thenReturn(city);
-        when(servicesRepository.save(service))
-                .thenReturn(service);
+        when(servicesRepository.save(any(Services.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         assertThat(travelPlanningService.addService(addService))
                 .isEqualTo(expect);
@@ -303,4 +764,93 @@ public class TravelPlanningServiceTest {
                 .isInstanceOf(ServicesException.class)
                 .hasMessage("The service already exists");
     }
+
+    @Test
+    void testAddService_Searchable() {
+        var addService = new AddServiceRequest("Park", "Oslo");
+        var city = Cities.builder().name("Oslo").build();
+
+        when(citiesRepository.save(city))
+                .thenReturn(city);
+        when(servicesRepository.save(any(Services.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        travelPlanningService.addService(addService);
+
+        assertThat(travelPlanningService.search("osl", null, 10))
+                .containsExactly(SearchResultDTO.builder().type(SearchResultDTO.Type.CITY).name("Oslo").build());
+        assertThat(travelPlanningService.search("prak", SearchResultDTO.Type.SERVICE, 10))
+                .containsExactly(SearchResultDTO.builder().type(SearchResultDTO.Type.SERVICE).name("Park").city("Oslo")
+                        .build());
+    }
+
+    @Test
+    void testSetCapacity() {
+        var city = Cities.builder().id(1L).name("Kiev").build();
+        var hotel = Services.builder().id(1L).city(city).name("Hotel").build();
+        var date = LocalDate.of(2024, 12, 12);
+
+        when(citiesRepository.findCitiesByName("Kiev")).thenReturn(Optional.of(city));
+        when(servicesRepository.findByNameAndCity("Hotel", city)).thenReturn(Optional.of(hotel));
+        when(capacityRepository.findByServiceAndDate(hotel, date))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new ServiceCapacity(1L, hotel, date, 20, 18)));
+        when(capacityRepository.countBookings(1L, date)).thenReturn(2);
+
+        assertThat(travelPlanningService.setCapacity(new CapacityRequest("Hotel", "Kiev", date, 20)))
+                .isEqualTo(CapacityDTO.builder().name("Hotel").city("Kiev").date(date).capacity(20).remaining(18)
+                        .build());
+        verify(servicesRepository).lockById(1L);
+        verify(capacityRepository).saveAndFlush(argThat(capacity -> capacity.getService() == hotel
+                && date.equals(capacity.getDate()) && capacity.getCapacity() == 20 && capacity.getRemaining() == 18));
+    }
+
+    @Test
+    void testSetCapacity_CreatedConcurrently() {
+        var city = Cities.builder().id(1L).name("Kiev").build();
+        var hotel = Services.builder().id(1L).city(city).name("Hotel").build();
+        var date = LocalDate.of(2024, 12, 12);
+
+        when(citiesRepository.findCitiesByName("Kiev")).thenReturn(Optional.of(city));
+        when(servicesRepository.findByNameAndCity("Hotel", city)).thenReturn(Optional.of(hotel));
+        when(capacityRepository.findByServiceAndDate(hotel, date))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new ServiceCapacity(1L, hotel, date, 10, 8)))
+                .thenReturn(Optional.of(new ServiceCapacity(1L, hotel, date, 20, 18)));
+        when(capacityRepository.countBookings(1L, date)).thenReturn(2);
+        when(capacityRepository.saveAndFlush(any(ServiceCapacity.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry",
+                        new ConstraintViolationException("Duplicate entry", null,
+                                "service_capacity.uk_capacity_service_date")));
+        when(capacityRepository.resize(1L, date, 20)).thenReturn(1);
+
+        assertThat(travelPlanningService.setCapacity(new CapacityRequest("Hotel", "Kiev", date, 20)))
+                .isEqualTo(CapacityDTO.builder().name("Hotel").city("Kiev").date(date).capacity(20).remaining(18)
+                        .build());
+        verify(capacityRepository).resize(1L, date, 20);
+    }
+
+    @Test
+    void testSetCapacity_BelowBookings() {
+        var city = Cities.builder().id(1L).name("Kiev").build();
+        var hotel = Services.builder().id(1L).city(city).name("Hotel").build();
+        var date = LocalDate.of(2024, 12, 12);
+
+        when(citiesRepository.findCitiesByName("Kiev")).thenReturn(Optional.of(city));
+        when(servicesRepository.findByNameAndCity("Hotel", city)).thenReturn(Optional.of(hotel));
+        when(capacityRepository.findByServiceAndDate(hotel, date))
+                .thenReturn(Optional.of(new ServiceCapacity(1L, hotel, date, 20, 5)));
+        when(capacityRepository.resize(1L, date, 10)).thenReturn(0);
+
+        assertThatThrownBy(() -> travelPlanningService.setCapacity(new CapacityRequest("Hotel", "Kiev", date, 10)))
+                .isInstanceOf(ServicesException.class)
+                .hasMessage("The capacity is lower than the number of bookings on that date");
+    }
+
+    @Test
+    void testSearch_WrongLimit() {
+        assertThatThrownBy(() -> travelPlanningService.search("Kiev", null, SearchIndex.MAX_RESULTS + 1))
+                .isInstanceOf(ServicesException.class)
+                .hasMessage("The number of results must be between 1 and " + SearchIndex.MAX_RESULTS);
+    }
 }
@@ -1,5 +1,6 @@
 package com.travel.planning;
 
+import com.travel.planning.configuration.security.CredentialsCache;
 import com.travel.planning.configuration.security.UserAdapter;
 import com.travel.planning.dto.request.RegistrationRequest;
 import com.travel.planning.model.User;
@@ -33,6 +34,9 @@ public class UserDetailsServiceTest {
     @Mock
     PasswordEncoder passwordEncoder;
 
+    @Mock
+    CredentialsCache credentialsCache;
+
     @InjectMocks
     UserDetailsServiceImp userDetailsService;
 
@@ -47,6 +51,7 @@ public class UserDetailsServiceTest {
         );
 
         assertThat(userDetailsService.register(registrationRequest)).isEqualTo(expect);
+        verify(credentialsCache).evict("misha@gmail.com");
     }
 
     @Test
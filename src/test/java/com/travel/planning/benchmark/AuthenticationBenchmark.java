@@ -0,0 +1,68 @@
+package com.travel.planning.benchmark;
+
+import com.travel.planning.configuration.security.Role;
+import com.travel.planning.configuration.security.TokenService;
+import com.travel.planning.configuration.security.UserAdapter;
+import com.travel.planning.model.User;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost: HTTP Basic (user lookup + BCrypt) against bearer token verification.
+ * The user lookup is in memory here, so the Basic numbers are a lower bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationBenchmark {
+    private DaoAuthenticationProvider basicProvider;
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        var passwordEncoder = new BCryptPasswordEncoder();
+        var user = User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .password(passwordEncoder.encode("1234"))
+                .role(Role.TRAVELER)
+                .build();
+
+        basicProvider = new DaoAuthenticationProvider();
+        basicProvider.setPasswordEncoder(passwordEncoder);
+        basicProvider.setUserDetailsService(username -> new UserAdapter(user));
+
+        tokenService = new TokenService(new byte[32], Duration.ofHours(1));
+        token = tokenService.issue(user);
+    }
+
+    @Benchmark
+    public Authentication basic() {
+        return basicProvider.authenticate(new UsernamePasswordAuthenticationToken("misha@gmail.com", "1234"));
+    }
+
+    @Benchmark
+    public Optional<UserAdapter> bearer() {
+        return tokenService.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AuthenticationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
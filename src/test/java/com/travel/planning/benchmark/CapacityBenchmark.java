@@ -0,0 +1,111 @@
+package com.travel.planning.benchmark;
+
+import com.travel.planning.TravelPlanningApplication;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.ServiceCapacity;
+import com.travel.planning.model.Services;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServiceCapacityRepository;
+import com.travel.planning.repository.ServicesRepository;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent reservations on the embedded H2 database, every thread in its own transactions. With
+ * {@code services = distinct} each thread books another service, with {@code shared} all of them book the same
+ * one and queue on its row lock, which is the only place where bookings wait for each other.
+ * <p>
+ * Every transaction keeps the lock for {@code holdMillis} after the update, like the commit round trip of a
+ * database server, so the numbers show lock waits and not the number of cores: distinct services should reach
+ * about {@code threads / holdMillis} bookings per millisecond, a shared one about {@code 1 / holdMillis}.
+ * The Spring and Hibernate stack takes about half a minute to be compiled, hence the long warmup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 3)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class CapacityBenchmark {
+    private static final LocalDate DATE = LocalDate.of(2024, 12, 12);
+    private static final int THREADS = 8;
+
+    @Param({"distinct", "shared"})
+    public String services;
+
+    @Param({"1"})
+    public int holdMillis;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ServiceCapacityRepository capacityRepository;
+    private final List<Long> serviceIds = new ArrayList<>();
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Booking {
+        long serviceId;
+
+        @Setup
+        public void setup(CapacityBenchmark benchmark) {
+            int thread = benchmark.threads.getAndIncrement();
+            serviceId = benchmark.serviceIds.get(benchmark.services.equals("shared") ? 0 : thread % THREADS);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(TravelPlanningApplication.class)
+                .profiles("embedded")
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=warn");
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        capacityRepository = context.getBean(ServiceCapacityRepository.class);
+
+        Cities city = context.getBean(CitiesRepository.class).save(Cities.builder().name("Benchmark").build());
+        for (int i = 0; i < THREADS; i++) {
+            Services service = context.getBean(ServicesRepository.class)
+                    .save(Services.builder().name("Hotel " + i).city(city).build());
+            capacityRepository.save(ServiceCapacity.builder()
+                    .service(service).date(DATE).capacity(Integer.MAX_VALUE).remaining(Integer.MAX_VALUE).build());
+            serviceIds.add(service.getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer reserve(Booking booking) {
+        return transactionTemplate.execute(status -> {
+            int reserved = capacityRepository.reserve(booking.serviceId, DATE);
+            try {
+                Thread.sleep(holdMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return reserved;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CapacityBenchmark.class.getSimpleName()).build()).run();
+    }
+}
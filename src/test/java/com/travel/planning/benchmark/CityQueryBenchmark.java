@@ -0,0 +1,133 @@
+package com.travel.planning.benchmark;
+
+import com.travel.planning.TravelPlanningApplication;
+import com.travel.planning.configuration.security.Role;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Services;
+import com.travel.planning.model.Travel;
+import com.travel.planning.model.User;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServicesRepository;
+import com.travel.planning.repository.TravelRepository;
+import com.travel.planning.repository.UserRepository;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups by city on the embedded H2 database filled with {@code rows} travels (and as many users) and
+ * {@code rows} services, spread evenly over {@code cities} cities, so every call returns
+ * {@code rows / cities} entities. Each call runs in its own read-only transaction and asks for the next city.
+ * Filling a million rows takes a few minutes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CityQueryBenchmark {
+    private static final int CHUNK = 5000;
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"10000"})
+    public int cities;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnly;
+    private ServicesRepository servicesRepository;
+    private TravelRepository travelRepository;
+    private List<Cities> saved;
+    private int next;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(TravelPlanningApplication.class)
+                .profiles("embedded")
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=warn");
+        var transactionTemplate = context.getBean(TransactionTemplate.class);
+        servicesRepository = context.getBean(ServicesRepository.class);
+        travelRepository = context.getBean(TravelRepository.class);
+        var userRepository = context.getBean(UserRepository.class);
+
+        List<Cities> newCities = new ArrayList<>(cities);
+        for (int i = 0; i < cities; i++) {
+            newCities.add(Cities.builder().name("City " + i).build());
+        }
+        saved = context.getBean(CitiesRepository.class).saveAll(newCities);
+
+        for (int from = 0; from < rows; from += CHUNK) {
+            int start = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                int end = Math.min(start + CHUNK, rows);
+                List<User> users = new ArrayList<>(end - start);
+                List<Travel> travels = new ArrayList<>(end - start);
+                List<Services> services = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    User user = User.builder().email("benchmark" + i + "@gmail.com").password("1234")
+                            .role(Role.TRAVELER).build();
+                    users.add(user);
+                    travels.add(Travel.builder().departure(city(i)).destination(city(i + 1))
+                            .travel_time(LocalDateTime.of(2024, 12, 12, 12, 12, 12)).user(user).build());
+                    services.add(Services.builder().name("Service " + i).city(city(i)).build());
+                }
+                userRepository.saveAll(users);
+                travelRepository.saveAll(travels);
+                servicesRepository.saveAll(services);
+            });
+        }
+
+        readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private Cities city(int i) {
+        return saved.get(i % cities);
+    }
+
+    private Cities nextCity() {
+        return city(next++);
+    }
+
+    @Benchmark
+    public List<Services> findAllByCity() {
+        Cities city = nextCity();
+        return readOnly.execute(status -> servicesRepository.findAllByCity(city));
+    }
+
+    @Benchmark
+    public List<Travel> findAllByDeparture() {
+        Cities city = nextCity();
+        return readOnly.execute(status -> travelRepository.findAllByDeparture(city));
+    }
+
+    @Benchmark
+    public List<Travel> findAllByDestination() {
+        Cities city = nextCity();
+        return readOnly.execute(status -> travelRepository.findAllByDestination(city));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CityQueryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package com.travel.planning.benchmark;
+
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Services;
+import com.travel.planning.model.Travel;
+import com.travel.planning.model.User;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Identity operations on a page of trips to delete, wired both ways like a loaded persistence context: every
+ * trip has {@code services} booked services and every service lists the trips that booked it. Collecting the
+ * trips into a set, comparing them and logging them must cost the same for any number of services.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityIdentityBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"0", "5", "50"})
+    public int services;
+
+    private List<Travel> travels;
+    private List<Travel> copies;
+
+    @Setup
+    public void setup() {
+        var kiev = Cities.builder().id(1L).name("Kiev").build();
+        var warsaw = Cities.builder().id(2L).name("Warsaw").build();
+        List<Services> catalog = new ArrayList<>(services);
+        for (long i = 0; i < services; i++) {
+            catalog.add(Services.builder().id(i).name("Service " + i).city(warsaw).travels(new ArrayList<>()).build());
+        }
+
+        travels = new ArrayList<>(PAGE_SIZE);
+        copies = new ArrayList<>(PAGE_SIZE);
+        for (long i = 0; i < PAGE_SIZE; i++) {
+            Set<Services> booked = new LinkedHashSet<>(catalog);
+            var user = User.builder().user_id(i).email("user" + i + "@gmail.com").build();
+            var travel = Travel.builder().id(i).departure(kiev).destination(warsaw).user(user)
+                    .travel_time(LocalDateTime.of(2024, 12, 12, 12, 12, 12)).services(booked).build();
+            catalog.forEach(service -> service.getTravels().add(travel));
+            travels.add(travel);
+            copies.add(Travel.builder().id(i).departure(kiev).destination(warsaw).user(user)
+                    .travel_time(travel.getTravel_time()).services(new LinkedHashSet<>(booked)).build());
+        }
+    }
+
+    @Benchmark
+    public Set<Travel> collect() {
+        return new HashSet<>(travels);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        Set<Travel> set = new HashSet<>(travels);
+        boolean all = true;
+        for (Travel copy : copies) {
+            all &= set.contains(copy);
+        }
+        return all;
+    }
+
+    @Benchmark
+    public int log() {
+        int length = 0;
+        for (Travel travel : travels) {
+            length += travel.toString().length();
+        }
+        return length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EntityIdentityBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.travel.planning.benchmark;
+
+import com.travel.planning.TravelPlanningApplication;
+import com.travel.planning.configuration.security.Role;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Services;
+import com.travel.planning.model.Travel;
+import com.travel.planning.model.User;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServicesRepository;
+import com.travel.planning.repository.TravelRepository;
+import com.travel.planning.repository.UserRepository;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk insert throughput of services and travels (with their users) against a real database.
+ * {@code batchSize = 1} approximates the old IDENTITY mapping, which could not batch.
+ * The datasource comes from -Dbenchmark.datasource.url/username/password, local MySQL by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+    private static final int ROWS = 500;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ServicesRepository servicesRepository;
+    private TravelRepository travelRepository;
+    private UserRepository userRepository;
+    private Cities city;
+    private final AtomicLong users = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(TravelPlanningApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + System.getProperty("benchmark.datasource.url",
+                                "jdbc:mysql://localhost:3306/traveling?rewriteBatchedStatements=true"),
+                        "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "root"),
+                        "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--logging.level.root=warn");
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        servicesRepository = context.getBean(ServicesRepository.class);
+        travelRepository = context.getBean(TravelRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        city = context.getBean(CitiesRepository.class).save(Cities.builder().name("Benchmark").build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void services() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Services> services = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                services.add(Services.builder().name("Service " + i).city(city).build());
+            }
+            servicesRepository.saveAll(services);
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void travels() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> newUsers = new ArrayList<>(ROWS);
+            List<Travel> travels = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                User user = User.builder().email("benchmark" + users.incrementAndGet() + "@gmail.com")
+                        .password("1234").role(Role.TRAVELER).build();
+                newUsers.add(user);
+                travels.add(Travel.builder().departure(city).destination(city)
+                        .travel_time(LocalDateTime.of(2024, 12, 12, 12, 12, 12)).user(user).build());
+            }
+            userRepository.saveAll(newUsers);
+            travelRepository.saveAll(travels);
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.travel.planning.benchmark;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latencies and outcomes per operation for the load drivers. Latency percentiles are computed over
+ * successful (2xx) calls, 503 answers are counted as rejected and everything else as errors.
+ */
+class LatencyRecorder {
+    static final int FAILED = -1;
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    void record(String operation, long nanos, int status) {
+        operations.computeIfAbsent(operation, name -> new Operation()).add(nanos, status);
+    }
+
+    /**
+     * Summary per operation, sorted by name, with throughput over {@code seconds} and latencies in milliseconds.
+     */
+    Map<String, Map<String, Object>> summary(double seconds) {
+        Map<String, Map<String, Object>> summary = new TreeMap<>();
+        operations.forEach((name, operation) -> summary.put(name, operation.summary(seconds)));
+        return summary;
+    }
+
+    String report(double seconds) {
+        StringBuilder report = new StringBuilder();
+        summary(seconds).forEach((name, operation) -> report.append(String.format(
+                "%-10s ok=%-7s rejected=%-5s errors=%-5s throughput=%8.1f/s p50=%8.1f ms p90=%8.1f ms "
+                        + "p99=%8.1f ms max=%8.1f ms%n",
+                name, operation.get("ok"), operation.get("rejected"), operation.get("errors"),
+                operation.get("throughput"), operation.get("p50_ms"), operation.get("p90_ms"),
+                operation.get("p99_ms"), operation.get("max_ms"))));
+        return report.toString();
+    }
+
+    private static class Operation {
+        private long[] latencies = new long[1024];
+        private int ok;
+        private long rejected;
+        private long errors;
+
+        synchronized void add(long nanos, int status) {
+            if (status / 100 == 2) {
+                if (ok == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, ok * 2);
+                }
+                latencies[ok++] = nanos;
+            } else if (status == 503) {
+                rejected++;
+            } else {
+                errors++;
+            }
+        }
+
+        synchronized Map<String, Object> summary(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, ok);
+            Arrays.sort(sorted);
+            long total = ok + rejected + errors;
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", total);
+            summary.put("ok", ok);
+            summary.put("rejected", rejected);
+            summary.put("errors", errors);
+            summary.put("error_rate", total == 0 ? 0.0 : (double) (rejected + errors) / total);
+            summary.put("throughput", ok / seconds);
+            summary.put("p50_ms", millis(percentile(sorted, 0.50)));
+            summary.put("p90_ms", millis(percentile(sorted, 0.90)));
+            summary.put("p99_ms", millis(percentile(sorted, 0.99)));
+            summary.put("max_ms", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+            return summary;
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.travel.planning.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load against a running instance: every client sends its next request as soon as the
+ * previous one is answered. Prints throughput and latency percentiles of the measured period.
+ * <p>
+ * To compare the thread models, run it once against the default build (JDK 17, Tomcat worker pool) and once
+ * against {@code mvn -Pvirtual-threads spring-boot:run} on JDK 21, with the same database:
+ * <pre>
+ * java -cp target/test-classes -Dload.label=virtual -Dload.clients=2000 com.travel.planning.benchmark.LoadTest
+ * </pre>
+ * Settings: load.url, load.path, load.user, load.password, load.clients, load.warmup, load.seconds and
+ * load.output (optional JSON summary file).
+ */
+public class LoadTest {
+    public static void main(String[] args) throws Exception {
+        String label = System.getProperty("load.label", "default");
+        URI uri = URI.create(System.getProperty("load.url", "http://localhost:8080")
+                + System.getProperty("load.path", "/travel/page?size=20"));
+        String credentials = System.getProperty("load.user", "misha@gmail.com") + ":"
+                + System.getProperty("load.password", "1234");
+        int clients = Integer.getInteger("load.clients", 2000);
+        long warmup = Duration.ofSeconds(Integer.getInteger("load.warmup", 10)).toNanos();
+        long measured = Duration.ofSeconds(Integer.getInteger("load.seconds", 30)).toNanos();
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        long from = start + warmup;
+        long until = from + measured;
+        LatencyRecorder recorder = new LatencyRecorder();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<?>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> run(http, request, recorder, from, until)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        double seconds = measured / 1e9;
+        System.out.print(label + ": clients=" + clients + System.lineSeparator() + recorder.report(seconds));
+        String output = System.getProperty("load.output");
+        if (output != null && !output.isBlank()) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("label", label);
+            result.put("url", uri.toString());
+            result.put("clients", clients);
+            result.put("seconds", seconds);
+            result.put("operations", recorder.summary(seconds));
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(new File(output), result);
+        }
+    }
+
+    private static void run(HttpClient http, HttpRequest request, LatencyRecorder recorder, long from, long until) {
+        long now;
+        while ((now = System.nanoTime()) < until) {
+            int status;
+            try {
+                status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = LatencyRecorder.FAILED;
+            }
+            if (now >= from) {
+                recorder.record("request", System.nanoTime() - now, status);
+            }
+        }
+    }
+}
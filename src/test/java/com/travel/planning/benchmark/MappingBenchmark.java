@@ -0,0 +1,103 @@
+package com.travel.planning.benchmark;
+
+import com.travel.planning.configuration.Mapper;
+import com.travel.planning.dto.response.ServicesDTO;
+import com.travel.planning.dto.response.TravelDTO;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Services;
+import com.travel.planning.model.Travel;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and JSON serialization of one travel and of a full /travel/page response,
+ * for travels with {@code services} booked services. Run with the gc profiler to see allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"0", "5", "50"})
+    public int services;
+
+    private Services service;
+    private Travel travel;
+    private List<Travel> travels;
+    private List<TravelDTO> travelDTOs;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() {
+        var kiev = Cities.builder().id(1L).name("Kiev").build();
+        var warsaw = Cities.builder().id(2L).name("Warsaw").build();
+        Set<Services> booked = new LinkedHashSet<>();
+        for (long i = 0; i < services; i++) {
+            booked.add(Services.builder().id(i).name("Service " + i).city(warsaw).build());
+        }
+        service = Services.builder().id(-1L).name("Hotel").city(warsaw).build();
+
+        travels = new ArrayList<>(PAGE_SIZE);
+        for (long i = 0; i < PAGE_SIZE; i++) {
+            travels.add(Travel.builder().id(i).departure(kiev).destination(warsaw)
+                    .travel_time(LocalDateTime.of(2024, 12, 12, 12, 12, 12)).services(booked).build());
+        }
+        travel = travels.get(0);
+        travelDTOs = travels.stream().map(Mapper::mapToTravelDTO).toList();
+
+        // configured like the application's ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+    }
+
+    @Benchmark
+    public ServicesDTO mapService() {
+        return Mapper.mapToServicesDTO(service);
+    }
+
+    @Benchmark
+    public TravelDTO mapTravel() {
+        return Mapper.mapToTravelDTO(travel);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<TravelDTO> mapPage() {
+        return travels.stream().map(Mapper::mapToTravelDTO).toList();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(travelDTOs);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
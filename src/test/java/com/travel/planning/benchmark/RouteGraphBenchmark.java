@@ -0,0 +1,110 @@
+package com.travel.planning.benchmark;
+
+import com.travel.planning.dto.response.RouteDTO;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Connections;
+import com.travel.planning.repository.ConnectionsRepository;
+import com.travel.planning.service.RouteGraph;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Route search between opposite corners of a {@code size} x {@code size} grid of cities, where every city is
+ * connected to its neighbours in both directions with random weights: the shortest route and the 5 shortest.
+ * {@code register} measures merging one connection into the graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteGraphBenchmark {
+    @Param({"10", "30"})
+    public int size;
+
+    private RouteGraph routeGraph;
+    private Connections connection;
+    private String from;
+    private String to;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        Cities[] cities = new Cities[size * size];
+        for (int i = 0; i < cities.length; i++) {
+            cities[i] = Cities.builder().id((long) i).name("City " + i).build();
+        }
+
+        List<Connections> connections = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                int city = row * size + column;
+                if (column + 1 < size) {
+                    connections.add(connection(cities[city], cities[city + 1], random));
+                    connections.add(connection(cities[city + 1], cities[city], random));
+                }
+                if (row + 1 < size) {
+                    connections.add(connection(cities[city], cities[city + size], random));
+                    connections.add(connection(cities[city + size], cities[city], random));
+                }
+            }
+        }
+
+        ConnectionsRepository connectionsRepository = mock(ConnectionsRepository.class);
+        when(connectionsRepository.findAll()).thenReturn(connections);
+        routeGraph = new RouteGraph(connectionsRepository);
+        routeGraph.reload();
+
+        from = cities[0].getName();
+        to = cities[cities.length - 1].getName();
+        connection = connection(cities[0], cities[cities.length - 1], random);
+        if (routeGraph.find(from, to, RouteGraph.Weight.DURATION, 5).size() != 5) {
+            throw new IllegalStateException("Expected 5 routes");
+        }
+    }
+
+    @Benchmark
+    public List<RouteDTO> shortest() {
+        return routeGraph.find(from, to, RouteGraph.Weight.DURATION, 1);
+    }
+
+    @Benchmark
+    public List<RouteDTO> fiveShortest() {
+        return routeGraph.find(from, to, RouteGraph.Weight.DURATION, 5);
+    }
+
+    @Benchmark
+    public int register() {
+        routeGraph.register(connection);
+        return routeGraph.size();
+    }
+
+    private static Connections connection(Cities departure, Cities destination, Random random) {
+        return Connections.builder()
+                .departure(departure)
+                .destination(destination)
+                .duration(60 + random.nextInt(600))
+                .cost(10 + random.nextInt(100))
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RouteGraphBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,212 @@
+package com.travel.planning.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travel.planning.TravelPlanningApplication;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-loop end-to-end load: new user sessions are started at a fixed rate whether or not the previous ones
+ * have finished, so a slow server shows up as growing latency instead of a lower request rate. Every session
+ * registers a user, plans a travel, lists and books a service and completes the travel. The {@code session}
+ * operation is measured from the moment the session was scheduled to start.
+ * <p>
+ * Without load.url the application is started in process on the embedded H2 database:
+ * <pre>
+ * mvn -Pload-test test -Dload.rate=50 -Dload.seconds=120 -Dload.max-p99-ms=500 -Dload.max-error-rate=0.01
+ * </pre>
+ * Settings: load.label, load.url, load.rate (sessions per second), load.warmup, load.seconds, load.max-sessions,
+ * load.output (JSON summary file), load.max-p99-ms and load.max-error-rate. The process exits with 1 when an
+ * operation exceeds one of the thresholds.
+ */
+public class ScenarioLoadTest {
+    private static final String PASSWORD = "load-1234";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final AtomicLong users = new AtomicLong();
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+    private final String url;
+
+    private ScenarioLoadTest(String url) {
+        this.url = url;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String label = System.getProperty("load.label", "scenario");
+        String url = System.getProperty("load.url", "");
+        int rate = Integer.getInteger("load.rate", 20);
+        int warmup = Integer.getInteger("load.warmup", 10);
+        int seconds = Integer.getInteger("load.seconds", 60);
+        int maxSessions = Integer.getInteger("load.max-sessions", 1000);
+
+        ConfigurableApplicationContext context = null;
+        if (url.isBlank()) {
+            context = new SpringApplicationBuilder(TravelPlanningApplication.class)
+                    .profiles("embedded")
+                    .run("--server.port=0", "--logging.level.root=warn");
+            url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        Map<String, Object> result;
+        try {
+            ScenarioLoadTest test = new ScenarioLoadTest(url);
+            test.run(rate, warmup, seconds, maxSessions);
+
+            result = new LinkedHashMap<>();
+            result.put("label", label);
+            result.put("url", url);
+            result.put("rate", rate);
+            result.put("warmup", warmup);
+            result.put("seconds", seconds);
+            result.put("operations", test.recorder.summary(seconds));
+            System.out.print(label + ": rate=" + rate + "/s" + System.lineSeparator()
+                    + test.recorder.report(seconds));
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+
+        List<String> violations = violations(result);
+        result.put("passed", violations.isEmpty());
+        result.put("violations", violations);
+        String output = System.getProperty("load.output", "");
+        if (!output.isBlank()) {
+            File file = new File(output);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, result);
+        }
+        violations.forEach(System.err::println);
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    private void run(int rate, int warmup, int seconds, int maxSessions) throws InterruptedException {
+        long period = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long from = start + TimeUnit.SECONDS.toNanos(warmup);
+        long until = from + TimeUnit.SECONDS.toNanos(seconds);
+
+        Semaphore sessions = new Semaphore(maxSessions);
+        ExecutorService workers = Executors.newCachedThreadPool();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        AtomicLong tick = new AtomicLong();
+        scheduler.scheduleAtFixedRate(() -> {
+            long intended = start + tick.getAndIncrement() * period;
+            if (intended >= until) {
+                return;
+            }
+            boolean measured = intended >= from;
+            if (!sessions.tryAcquire()) {
+                if (measured) {
+                    recorder.record("dropped", 0, LatencyRecorder.FAILED);
+                }
+                return;
+            }
+            workers.execute(() -> {
+                try {
+                    session(intended, measured);
+                } finally {
+                    sessions.release();
+                }
+            });
+        }, 0, period, TimeUnit.NANOSECONDS);
+
+        TimeUnit.NANOSECONDS.sleep(until - System.nanoTime());
+        scheduler.shutdown();
+        workers.shutdown();
+        workers.awaitTermination(2, TimeUnit.MINUTES);
+    }
+
+    private void session(long intended, boolean measured) {
+        String email = "load-" + run + "-" + users.incrementAndGet() + "@example.com";
+        String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((email + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+
+        boolean completed = call("register", measured, request("/register")
+                        .POST(json(Map.of("email", email, "password", PASSWORD, "role", "traveler"))))
+                && call("create", measured, request("/travel/create").header("Authorization", authorization)
+                        .POST(json(Map.of("departure", "Warsaw", "destination", "Kiev",
+                                "travel_time", "2024-12-12T12:12:12"))))
+                && call("services", measured, request("/services").header("Authorization", authorization)
+                        .GET())
+                && call("book", measured, request("/services/book").header("Authorization", authorization)
+                        .POST(json(Map.of("name", "Hotel"))))
+                && call("complete", measured, request("/travel/complete").header("Authorization", authorization)
+                        .POST(HttpRequest.BodyPublishers.noBody()));
+
+        if (measured) {
+            recorder.record("session", System.nanoTime() - intended, completed ? 200 : LatencyRecorder.FAILED);
+        }
+    }
+
+    private boolean call(String operation, boolean measured, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            status = LatencyRecorder.FAILED;
+        }
+        if (measured) {
+            recorder.record(operation, System.nanoTime() - start, status);
+        }
+        return status / 100 == 2;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(url + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private static HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body));
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> violations(Map<String, Object> result) {
+        String maxP99 = System.getProperty("load.max-p99-ms", "");
+        String maxErrorRate = System.getProperty("load.max-error-rate", "");
+        List<String> violations = new ArrayList<>();
+        ((Map<String, Map<String, Object>>) result.get("operations")).forEach((name, operation) -> {
+            if (!maxP99.isBlank() && (double) operation.get("p99_ms") > Double.parseDouble(maxP99)) {
+                violations.add(name + ": p99 " + operation.get("p99_ms") + " ms > " + maxP99 + " ms");
+            }
+            if (!maxErrorRate.isBlank() && (double) operation.get("error_rate") > Double.parseDouble(maxErrorRate)) {
+                violations.add(name + ": error rate " + operation.get("error_rate") + " > " + maxErrorRate);
+            }
+        });
+        return violations;
+    }
+}
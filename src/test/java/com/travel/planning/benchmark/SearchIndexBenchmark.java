@@ -0,0 +1,109 @@
+package com.travel.planning.benchmark;
+
+import com.travel.planning.dto.response.SearchResultDTO;
+import com.travel.planning.model.Cities;
+import com.travel.planning.model.Services;
+import com.travel.planning.repository.CitiesRepository;
+import com.travel.planning.repository.ServicesRepository;
+import com.travel.planning.service.SearchIndex;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Autocomplete over {@code services} generated service names in 1000 cities: a short prefix, a full word,
+ * a word with a typo and a miss. {@code register} measures merging one new service into the index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchIndexBenchmark {
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ra", "to", "ve", "sa", "nu", "pe", "di", "or", "el"};
+    private static final String[] KINDS = {"Hotel", "Museum", "Park", "Theatre", "Restaurant", "Gallery", "Spa"};
+
+    @Param({"10000", "100000"})
+    public int services;
+
+    private SearchIndex searchIndex;
+    private Services service;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<Cities> cities = new ArrayList<>();
+        for (long i = 0; i < 1000; i++) {
+            cities.add(Cities.builder().id(i).name(word(random)).build());
+        }
+        List<Services> all = new ArrayList<>();
+        for (int i = 0; i < services; i++) {
+            all.add(Services.builder()
+                    .name(word(random) + " " + KINDS[random.nextInt(KINDS.length)])
+                    .city(cities.get(random.nextInt(cities.size())))
+                    .build());
+        }
+
+        CitiesRepository citiesRepository = mock(CitiesRepository.class);
+        ServicesRepository servicesRepository = mock(ServicesRepository.class);
+        when(citiesRepository.findAll()).thenReturn(cities);
+        when(servicesRepository.findAllBy()).thenReturn(all);
+        searchIndex = new SearchIndex(citiesRepository, servicesRepository);
+        searchIndex.reload();
+        service = Services.builder().name("Kalomi Opera").city(cities.get(0)).build();
+    }
+
+    @Benchmark
+    public List<SearchResultDTO> prefix() {
+        return searchIndex.search("ka", null, 10);
+    }
+
+    @Benchmark
+    public List<SearchResultDTO> word() {
+        return searchIndex.search("theatre", null, 10);
+    }
+
+    @Benchmark
+    public List<SearchResultDTO> typo() {
+        return searchIndex.search("kalomirt", null, 10);
+    }
+
+    @Benchmark
+    public List<SearchResultDTO> miss() {
+        return searchIndex.search("zzyzx", null, 10);
+    }
+
+    @Benchmark
+    public int register() {
+        searchIndex.register(service);
+        return searchIndex.size();
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0, length = 2 + random.nextInt(3); i < length; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SearchIndexBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,175 @@
+package com.travel.planning.benchmark;
+
+import com.travel.planning.configuration.security.Role;
+import com.travel.planning.configuration.security.SecurityConfig;
+import com.travel.planning.configuration.security.UserAdapter;
+import com.travel.planning.controller.TravelPlanningController;
+import com.travel.planning.model.User;
+import com.travel.planning.service.CatalogImportService;
+import com.travel.planning.service.RoutePlanningService;
+import com.travel.planning.service.TravelPlanningService;
+import com.travel.planning.service.UserDetailsServiceImp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Per-request security cost outside of authentication: building the authorities of the principal and
+ * walking the request matchers of {@link SecurityConfig}, for a request matched by the second rule,
+ * one matched near the end and one that falls through to denyAll. The matchers run against the real
+ * controller mappings, the controller's collaborators are mocks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityBenchmark {
+    private AnnotationConfigWebApplicationContext context;
+    private AuthorizationManager<HttpServletRequest> authorizationManager;
+    private UserAdapter userAdapter;
+    private Supplier<Authentication> authentication;
+    private HttpServletRequest register;
+    private HttpServletRequest services;
+    private HttpServletRequest unknown;
+
+    @Setup
+    public void setup() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(WebConfig.class, SecurityConfig.class, TravelPlanningController.class);
+        context.refresh();
+
+        SecurityFilterChain chain = context.getBean(SecurityFilterChain.class);
+        authorizationManager = chain.getFilters().stream()
+                .filter(AuthorizationFilter.class::isInstance)
+                .map(filter -> ((AuthorizationFilter) filter).getAuthorizationManager())
+                .findFirst()
+                .orElseThrow();
+
+        userAdapter = new UserAdapter(User.builder()
+                .user_id(1L)
+                .email("misha@gmail.com")
+                .password("1234")
+                .role(Role.TRAVELER)
+                .build());
+        Authentication token = UsernamePasswordAuthenticationToken.authenticated(userAdapter, null,
+                userAdapter.getAuthorities());
+        authentication = () -> token;
+
+        register = request("POST", "/register");
+        services = request("GET", "/services");
+        unknown = request("GET", "/unknown");
+        if (!authorize(register).isGranted() || !authorize(services).isGranted() || authorize(unknown).isGranted()) {
+            throw new IllegalStateException("Unexpected authorization rules: " + authorize(register) + ", "
+                    + authorize(services) + ", " + authorize(unknown));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> authorities() {
+        return userAdapter.getAuthorities();
+    }
+
+    @Benchmark
+    public AuthorizationDecision firstRule() {
+        return authorize(register);
+    }
+
+    @Benchmark
+    public AuthorizationDecision lastRule() {
+        return authorize(services);
+    }
+
+    @Benchmark
+    public AuthorizationDecision denied() {
+        return authorize(unknown);
+    }
+
+    // as Tomcat passes it to the DispatcherServlet mapped to "/"
+    private static HttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    private AuthorizationDecision authorize(HttpServletRequest request) {
+        return authorizationManager.check(authentication, request);
+    }
+
+    // registered explicitly, not a @Configuration so the application's component scan does not pick it up
+    @EnableWebMvc
+    static class WebConfig {
+        // converts the Duration properties of SecurityConfig the way Spring Boot does
+        @Bean
+        static ConversionService conversionService() {
+            return ApplicationConversionService.getSharedInstance();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        UserDetailsServiceImp userDetailsService() {
+            return mock(UserDetailsServiceImp.class);
+        }
+
+        @Bean
+        TravelPlanningService travelPlanningService() {
+            return mock(TravelPlanningService.class);
+        }
+
+        @Bean
+        CatalogImportService catalogImportService() {
+            return mock(CatalogImportService.class);
+        }
+
+        @Bean
+        RoutePlanningService routePlanningService() {
+            return mock(RoutePlanningService.class);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SecurityBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
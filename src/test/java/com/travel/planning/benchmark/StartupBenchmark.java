@@ -0,0 +1,49 @@
+package com.travel.planning.benchmark;
+
+import com.travel.planning.TravelPlanningApplication;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the whole application, one start per fresh JVM, until the context is refreshed and Tomcat
+ * listens. The database is the embedded in-memory one unless -Dbenchmark.datasource.url points elsewhere,
+ * e.g. to an H2 file or a MySQL database that already holds the schema and data of a previous start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public ConfigurableApplicationContext start() {
+        context = new SpringApplicationBuilder(TravelPlanningApplication.class)
+                .profiles("embedded")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + System.getProperty("benchmark.datasource.url",
+                                "jdbc:h2:mem:traveling;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DATABASE_TO_LOWER=TRUE;" +
+                                        "DB_CLOSE_DELAY=-1"),
+                        "--logging.level.root=warn");
+        return context;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        context.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StartupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,55 @@
+-- A database from before the migrations: the tables of V1 with unnamed constraints, so MySQL names them,
+-- and cities, services and travels still joined by city name.
+CREATE TABLE cities (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user (
+    user_id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role TINYINT,
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE services (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    city VARCHAR(255),
+    PRIMARY KEY (id),
+    FOREIGN KEY (city) REFERENCES cities (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE travel (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    travel_time DATETIME(6),
+    departure VARCHAR(255),
+    destination VARCHAR(255),
+    user_id BIGINT UNIQUE,
+    PRIMARY KEY (id),
+    FOREIGN KEY (user_id) REFERENCES user (user_id),
+    FOREIGN KEY (destination) REFERENCES cities (name),
+    FOREIGN KEY (departure) REFERENCES cities (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE travel_services (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    travel_id BIGINT NOT NULL,
+    service_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    FOREIGN KEY (travel_id) REFERENCES travel (id),
+    FOREIGN KEY (service_id) REFERENCES services (id)
+) ENGINE = InnoDB;
+
+INSERT INTO user(user_id, email, password, role)
+VALUES (1, 'misha@gmail.com', '$2a$10$Hzdg8upvCxY8wqZAyq79Ou1szV6sS6Xy55GmDyOqgz8ZKbMsklZ1C', 1),
+    (2, 'traveler@gmail.com', '$2a$10$Hzdg8upvCxY8wqZAyq79Ou1szV6sS6Xy55GmDyOqgz8ZKbMsklZ1C', 0);
+-- the ids of the seed data belong to other rows here, Kiev is not city 1 and Hotel is not service 1
+INSERT INTO cities(id, name) VALUES (1, 'Odesa'), (2, 'Warsaw'), (3, 'Berlin'), (4, 'Paris'), (5, 'Barcelona'),
+    (6, 'Rome'), (7, 'Vienna'), (2000, 'Lviv'), (2001, 'Kiev');
+INSERT INTO services(id, name, city) VALUES (1, 'Museum', 'Lviv'), (2, 'Hotel', 'Kiev');
+INSERT INTO travel(id, travel_time, departure, destination, user_id)
+VALUES (1, '2020-12-12 12:12:12', 'Warsaw', 'Lviv', 2);
+INSERT INTO travel_services(id, travel_id, service_id) VALUES (1, 1, 2), (2, 1, 2), (3, 1, 1);